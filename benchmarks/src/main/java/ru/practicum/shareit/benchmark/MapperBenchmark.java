@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Преобразование моделей в dto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    // Количество комментариев у вещи
+    @Param({"0", "20"})
+    private int comments;
+
+    private Item item;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = TestData.user(1);
+        owner.setId(1L);
+        User booker = TestData.user(2);
+        booker.setId(2L);
+
+        item = TestData.item(1, owner);
+        item.setId(1L);
+
+        List<Booking> bookings = TestData.bookings(item, List.of(booker), 2, now);
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId((long) i + 1);
+        }
+        booking = bookings.get(0);
+        item.setLastBooking(bookings.get(0));
+        item.setNextBooking(bookings.get(1));
+        item.setComments(TestData.comments(item, List.of(booker), comments, now));
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingForItemDto bookingToBookingForItemDto() {
+        return BookingMapper.toBookingForItemDto(booking);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.util.PageUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Формирование страницы из двух страниц репозитория.
+    Метод изменяет переданный список, поэтому на каждый вызов создается копия,
+    как и при чтении страниц из репозитория
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageUtilBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Long> twoPages;
+    private int startFrom;
+
+    @Setup
+    public void setUp() {
+        twoPages = new ArrayList<>();
+        for (long i = 0; i < 2L * size; i++) {
+            twoPages.add(i);
+        }
+        // Начало страницы в середине первой страницы репозитория
+        startFrom = PageUtil.getStartFrom(size + size / 2, size);
+    }
+
+    @Benchmark
+    public List getPageListForTwoPage() {
+        return PageUtil.getPageListForTwoPage(new ArrayList<>(twoPages), startFrom, size);
+    }
+}
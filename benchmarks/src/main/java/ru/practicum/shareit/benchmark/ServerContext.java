@@ -0,0 +1,31 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+/*
+    Запуск контекста сервера без веб-слоя со встроенной базой H2.
+    Параметры передаются как аргументы командной строки, чтобы переопределить
+    настройки PostgreSQL из application.properties сервера
+ */
+public class ServerContext {
+    private static final String[] ARGS = {
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--shareit.search.engine=like",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+    };
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run(ARGS);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Списки вещей и бронирований владельца через сервисы сервера на базе H2.
+    Владелец имеет items вещей, у каждой вещи bookingsPerItem бронирований
+    и 5 комментариев от BOOKERS разных пользователей
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int BOOKERS = 50;
+    private static final int COMMENTS_PER_ITEM = 5;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"50", "500"})
+    private int items;
+
+    @Param({"20"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServerContext.start();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User owner = userRepository.save(TestData.user(0));
+        ownerId = owner.getId();
+
+        List<User> bookers = new ArrayList<>();
+        for (int i = 1; i <= BOOKERS; i++) {
+            bookers.add(TestData.user(i));
+        }
+        bookers = userRepository.saveAll(bookers);
+
+        List<Item> ownerItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            ownerItems.add(TestData.item(i, owner));
+        }
+        ownerItems = itemRepository.saveAll(ownerItems);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Item item : ownerItems) {
+            bookingRepository.saveAll(TestData.bookings(item, bookers, bookingsPerItem, now));
+            commentRepository.saveAll(TestData.comments(item, bookers, COMMENTS_PER_ITEM, now));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> itemFindAllByOwner() {
+        return itemService.findAllByOwner(ownerId, null, null);
+    }
+
+    @Benchmark
+    public List<Item> itemFindAllByOwnerPage() {
+        return itemService.findAllByOwner(ownerId, PAGE_SIZE / 2, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Booking> bookingFindAllByOwnerPage() {
+        return bookingService.findAll(BookingRole.OWNER, ownerId, "ALL", BookingFilter.empty(),
+                PAGE_SIZE / 2, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Booking> bookingFindAllByOwnerPast() {
+        return bookingService.findAll(BookingRole.OWNER, ownerId, "PAST", BookingFilter.empty(), null, null);
+    }
+}
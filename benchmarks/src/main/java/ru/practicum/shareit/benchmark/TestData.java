@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Построение объектов для бенчмарков
+ */
+public class TestData {
+
+    public static User user(long number) {
+        return User.builder()
+                .name("Пользователь " + number)
+                .email("user" + number + "@yandex.ru")
+                .build();
+    }
+
+    public static Item item(long number, User owner) {
+        return Item.builder()
+                .name("Дрель " + number)
+                .description("Аккумуляторная дрель с двумя батареями, номер " + number)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    /*
+        Бронирования вещи по дням: половина в прошлом, половина в будущем
+     */
+    public static List<Booking> bookings(Item item, List<User> bookers, int count, LocalDateTime now) {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = now.plusDays(i - count / 2).plusHours(1);
+            bookings.add(Booking.builder()
+                    .item(item)
+                    .booker(bookers.get(i % bookers.size()))
+                    .start(start)
+                    .end(start.plusHours(12))
+                    .status(i % 5 == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED)
+                    .build());
+        }
+        return bookings;
+    }
+
+    public static List<Comment> comments(Item item, List<User> authors, int count, LocalDateTime now) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            comments.add(Comment.builder()
+                    .item(item)
+                    .author(authors.get(i % authors.size()))
+                    .text("Отличная дрель, комментарий " + i)
+                    .created(now.minusDays(i))
+                    .build());
+        }
+        return comments;
+    }
+}
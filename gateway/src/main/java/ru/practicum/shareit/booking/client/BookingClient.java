@@ -1,17 +1,31 @@
 package ru.practicum.shareit.booking.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface BookingClient {
-    public ResponseEntity<Object> getBookings(long userId, String stateParam, Integer from, Integer size);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, String stateParam, Integer from, Integer size,
+                                                    String cursor, Long itemId,
+                                                    LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                    boolean envelope, boolean total);
+
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto);
+
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookItemRequestDto> requestDtos);
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto);
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId);
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId);
+    public Mono<ResponseEntity<Object>> approve(Long id, Long userId, boolean approved);
 
-    public ResponseEntity<Object> approve(Long id, Long userId, boolean approved);
+    public Mono<ResponseEntity<Object>> findAllByOwner(
+            Long userId, String state, Integer from, Integer size, String cursor, Long itemId,
+            LocalDateTime rangeStart, LocalDateTime rangeEnd, boolean envelope, boolean total);
 
-    public ResponseEntity<Object> findAllByOwner(
-            Long userId, String state, Integer from, Integer size);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(Long userId, String state, String format);
 }
@@ -2,16 +2,20 @@ package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.ValidationException;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,23 +23,33 @@ public class BookingClientImp extends BaseClient implements BookingClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClientImp(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClientImp(@Value("${shareit-server.url}") String serverUrl,
+                            @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                            WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
     @Override
-    public ResponseEntity<Object> getBookings(long userId, String stateParam, Integer from, Integer size)
+    public Mono<ResponseEntity<Object>> getBookings(long userId, String stateParam, Integer from, Integer size,
+                                                    String cursor, Long itemId,
+                                                    LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                    boolean envelope, boolean total)
             throws ValidationException {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            return getFiltered("?state={state}&cursor={cursor}&size={size}", userId,
+                    getCursorParameters(state.name(), from, size, cursor), itemId, rangeStart, rangeEnd,
+                    envelope, total);
+        }
         if (from == null && size == null) {
-            return get("?state={state}", userId, Map.of(
-                    "state", state.name()));
+            return getFiltered("?state={state}", userId, Map.of(
+                    "state", state.name()), itemId, rangeStart, rangeEnd, envelope, total);
         }
 
         if (from == null || size == null) {
@@ -47,22 +61,28 @@ public class BookingClientImp extends BaseClient implements BookingClient {
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return getFiltered("?state={state}&from={from}&size={size}", userId, parameters,
+                itemId, rangeStart, rangeEnd, envelope, total);
     }
 
 
     @Override
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
     @Override
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
     @Override
-    public ResponseEntity<Object> approve(Long id, Long userId, boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(Long id, Long userId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
@@ -72,14 +92,23 @@ public class BookingClientImp extends BaseClient implements BookingClient {
     }
 
     @Override
-    public ResponseEntity<Object> findAllByOwner(Long userId, String state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> findAllByOwner(Long userId, String state, Integer from, Integer size,
+                                                       String cursor, Long itemId,
+                                                       LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                       boolean envelope, boolean total) {
 
         BookingState.from(state)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + state));
 
+        if (cursor != null) {
+            return getFiltered("/owner?state={state}&cursor={cursor}&size={size}", userId,
+                    getCursorParameters(state, from, size, cursor), itemId, rangeStart, rangeEnd,
+                    envelope, total);
+        }
+
         if (from == null && size == null) {
-            return get("/owner?state={state}", userId,
-                    Map.of("state", state));
+            return getFiltered("/owner?state={state}", userId,
+                    Map.of("state", state), itemId, rangeStart, rangeEnd, envelope, total);
         }
 
         if (from == null || size == null) {
@@ -91,7 +120,59 @@ public class BookingClientImp extends BaseClient implements BookingClient {
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return getFiltered("/owner?state={state}&from={from}&size={size}", userId, parameters,
+                itemId, rangeStart, rangeEnd, envelope, total);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(Long userId, String state, String format) {
+        BookingState bookingState = BookingState.from(state)
+                .orElseThrow(() -> new ValidationException("Unknown state: " + state));
+
+        return getStream("/owner/export?state={state}&format={format}", userId, Map.of(
+                "state", bookingState.name(),
+                "format", format));
+    }
+
+    /*
+        Необязательные условия списка (вещь и интервал дат) и обертка списка
+        добавляются к запросу, только если заданы
+     */
+    private Mono<ResponseEntity<Object>> getFiltered(String path, long userId, Map<String, Object> parameters,
+                                                     Long itemId, LocalDateTime rangeStart,
+                                                     LocalDateTime rangeEnd, boolean envelope, boolean total) {
+        StringBuilder filteredPath = new StringBuilder(path);
+        Map<String, Object> filteredParameters = new HashMap<>(parameters);
+        if (itemId != null) {
+            filteredParameters.put("itemId", itemId);
+            filteredPath.append("&itemId={itemId}");
+        }
+        if (rangeStart != null) {
+            filteredParameters.put("rangeStart", rangeStart);
+            filteredPath.append("&rangeStart={rangeStart}");
+        }
+        if (rangeEnd != null) {
+            filteredParameters.put("rangeEnd", rangeEnd);
+            filteredPath.append("&rangeEnd={rangeEnd}");
+        }
+
+        return get(withEnvelope(filteredPath.toString(), envelope, total), userId, filteredParameters);
+    }
+
+    private Map<String, Object> getCursorParameters(String state, Integer from, Integer size, String cursor) {
+        if (from != null) {
+            throw new ValidationException("Параметры from и cursor нельзя передавать одновременно");
+        }
+
+        if (size == null) {
+            throw new ValidationException("Не хватает параметров для формирования списка");
+        }
+
+        return Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
     }
 
 }
\ No newline at end of file
@@ -2,15 +2,23 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.client.BookingClientImp;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -21,46 +29,97 @@ public class BookingController {
     private final BookingClientImp bookingClientImp;
 
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    // Максимальное количество бронирований в одном запросе на создание списка
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(required = false) Integer from,
-                                              @Positive @RequestParam(required = false) Integer size) {
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClientImp.getBookings(userId, stateParam, from, size);
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all")
+                                                    String stateParam,
+                                                    @PositiveOrZero @RequestParam(required = false) Integer from,
+                                                    @Positive @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @Positive @RequestParam(required = false) Long itemId,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime rangeStart,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime rangeEnd,
+                                                    @RequestParam(required = false, defaultValue = "false")
+                                                    boolean envelope,
+                                                    @RequestParam(required = false, defaultValue = "false")
+                                                    boolean total) {
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}, itemId={}, range={}..{}",
+                stateParam, userId, from, size, cursor, itemId, rangeStart, rangeEnd);
+        return bookingClientImp.getBookings(userId, stateParam, from, size, cursor, itemId, rangeStart, rangeEnd,
+                envelope, total);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClientImp.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> bookItems(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                  @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                  List<@Valid BookItemRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClientImp.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClientImp.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> approve(@PathVariable Long id,
-                                          @RequestHeader(X_SHARER_USER_ID) Long userId,
-                                          @RequestParam(required = true) boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(@PathVariable Long id,
+                                                @RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                @RequestParam(required = true) boolean approved) {
         log.info("Получен запрос на подтвержение бронирования c id {} от пользователя {} с параметром approved = {} ",
                 id, userId, approved);
         return bookingClientImp.approve(id, userId, approved);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                                 @RequestParam(required = false, defaultValue = "ALL") String state,
-                                                 @PositiveOrZero @RequestParam(required = false) Integer from,
-                                                 @Positive @RequestParam(required = false) Integer size) {
+    public Mono<ResponseEntity<Object>> findAllByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                       @RequestParam(required = false, defaultValue = "ALL")
+                                                       String state,
+                                                       @PositiveOrZero @RequestParam(required = false) Integer from,
+                                                       @Positive @RequestParam(required = false) Integer size,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @Positive @RequestParam(required = false) Long itemId,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                       LocalDateTime rangeStart,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                       LocalDateTime rangeEnd,
+                                                       @RequestParam(required = false, defaultValue = "false")
+                                                       boolean envelope,
+                                                       @RequestParam(required = false, defaultValue = "false")
+                                                       boolean total) {
         log.info("Получен запрос на получение списка бронирований владельца {} с пармаетром state: {} ",
                 userId, state);
-        return bookingClientImp.findAllByOwner(userId, state, from, size);
+        return bookingClientImp.findAllByOwner(userId, state, from, size, cursor, itemId, rangeStart, rangeEnd,
+                envelope, total);
+    }
+
+    // Выгрузка бронирований владельца в формате NDJSON или CSV передается клиенту потоком
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                                @RequestParam(required = false, defaultValue = "ALL")
+                                                                String state,
+                                                                @RequestParam(required = false, defaultValue = "ndjson")
+                                                                String format) {
+        log.info("Получен запрос на выгрузку бронирований владельца {} с пармаетром state: {} в формате {} ",
+                userId, state, format);
+        return bookingClientImp.exportByOwner(userId, state, format);
     }
-}
\ No newline at end of file
+}
@@ -3,119 +3,199 @@ package ru.practicum.shareit.client;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+    Неблокирующий клиент к серверу ShareIt. Запрос к серверу не занимает поток
+    на время ожидания ответа: ответ сервера возвращается через Mono.
+    В режиме passthrough тело ответа сервера не разбирается, а передается клиенту
+    в виде массива байт вместе с заголовками сервера
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    // Заголовки соединения с сервером, которые не должны попадать в ответ шлюза
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING,
+            "Keep-Alive");
+
+    protected final WebClient webClient;
+    private final boolean passthrough;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    /*
+        Список в обертке (envelope=true) с общим количеством элементов (total=true):
+        параметры передаются серверу, только если обертка запрошена
+     */
+    protected static String withEnvelope(String path, boolean envelope, boolean total) {
+        if (!envelope) {
+            return path;
         }
-        return prepareGatewayResponse(shareitServerResponse);
-    }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+        return path + (path.contains("?") ? "&" : "?") + "envelope=true" + (total ? "&total=true" : "");
+    }
+
+    /*
+        Тело ответа сервера передается клиенту по мере поступления, без накопления
+        в памяти шлюза. Ответ с ошибкой передается клиенту так же, без изменений
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getStream(String path, long userId,
+                                                               Map<String, Object> parameters) {
+        return webClient.get()
+                .uri(path, parameters)
+                .headers(headers -> {
+                    setDefaultHeaders(headers, userId);
+                    headers.setAccept(List.of(MediaType.ALL));
+                })
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                        .headers(getGatewayHeaders(entity.getHeaders()))
+                        .body(entity.getBody()));
+    }
+
+    /*
+        Тело запроса передается серверу по мере поступления от клиента,
+        без накопления в памяти шлюза
+     */
+    protected Mono<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType,
+                                                      Flux<DataBuffer> body) {
+        return webClient.post()
+                .uri(path)
+                .headers(headers -> {
+                    setDefaultHeaders(headers, userId);
+                    headers.setContentType(contentType);
+                })
+                .body(BodyInserters.fromDataBuffers(body))
+                .exchangeToMono(this::prepareGatewayResponse);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> setDefaultHeaders(headers, userId));
+
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(this::prepareGatewayResponse);
+    }
+
+    private void setDefaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /*
+        Успешный ответ возвращается с заголовками сервера, тело ответа с ошибкой -
+        без изменений в виде массива байт
+     */
+    private Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (passthrough) {
+            return passthroughResponse(response);
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(Object.class)
+                    .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                            .headers(getGatewayHeaders(entity.getHeaders()))
+                            .body(entity.getBody()));
         }
 
-        return responseBuilder.build();
+        return response.bodyToMono(byte[].class)
+                .map(body -> ResponseEntity.status(response.statusCode()).<Object>body(body))
+                .defaultIfEmpty(ResponseEntity.status(response.statusCode()).build());
+    }
+
+    private static Mono<ResponseEntity<Object>> passthroughResponse(ClientResponse response) {
+        HttpHeaders headers = getGatewayHeaders(response.headers().asHttpHeaders());
+
+        return response.bodyToMono(byte[].class)
+                .map(body -> ResponseEntity.status(response.statusCode()).headers(headers).<Object>body(body))
+                .defaultIfEmpty(ResponseEntity.status(response.statusCode()).headers(headers).build());
+    }
+
+    private static HttpHeaders getGatewayHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(serverHeaders);
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        return headers;
     }
 }
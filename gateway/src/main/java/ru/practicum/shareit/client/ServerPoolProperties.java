@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/*
+    Настройки общего пула соединений шлюза с сервером ShareIt
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ServerPoolProperties {
+    // Максимум соединений к серверу (пул ведется отдельно для каждого адреса сервера)
+    private int maxConnections = 200;
+
+    // Максимум запросов, ожидающих свободного соединения
+    private int pendingAcquireMaxCount = 1000;
+
+    // Время ожидания свободного соединения
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    // Время простоя соединения до закрытия. Должно быть меньше keep-alive таймаута сервера
+    // (у Tomcat по умолчанию 20 секунд), иначе сервер закроет соединение первым
+    private Duration maxIdleTime = Duration.ofSeconds(15);
+
+    // Максимальное время жизни соединения
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    // Период фоновой проверки простаивающих соединений
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    private boolean keepAlive = true;
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    private Duration responseTimeout = Duration.ofSeconds(30);
+}
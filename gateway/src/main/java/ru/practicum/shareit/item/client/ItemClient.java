@@ -1,25 +1,38 @@
 package ru.practicum.shareit.item.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.PatchItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface ItemClient {
-    public ResponseEntity<Object> findAllByUserId(
-            Long userId, Integer from, Integer size);
+    public Mono<ResponseEntity<Object>> findAllByUserId(
+            Long userId, Integer from, Integer size, boolean envelope, boolean total);
+
+    public Mono<ResponseEntity<Object>> getItem(Long id, Long userId);
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to);
+
+    public Mono<ResponseEntity<Object>> search(
+            Long userId, String text, Integer from, Integer size, boolean envelope, boolean total);
 
-    public ResponseEntity<Object> getItem(Long id, Long userId);
+    public Mono<ResponseEntity<Object>> add(Long userId, CreateItemDto item);
 
-    public ResponseEntity<Object> search(
-            Long userId, String text, Integer from, Integer size);
+    public Mono<ResponseEntity<Object>> addAll(Long userId, List<CreateItemDto> items);
 
-    public ResponseEntity<Object> add(Long userId, CreateItemDto item);
+    public Mono<ResponseEntity<Object>> importItems(Long userId, MediaType contentType, Flux<DataBuffer> body);
 
-    public ResponseEntity<Object> addComment(Long id, Long userId, CreateCommentDto comment);
+    public Mono<ResponseEntity<Object>> addComment(Long id, Long userId, CreateCommentDto comment);
 
-    public ResponseEntity<Object> update(Long id, Long userId, PatchItemDto item);
+    public Mono<ResponseEntity<Object>> update(Long id, Long userId, PatchItemDto item);
 
-    public ResponseEntity<Object> deleteItem(Long id, Long userId);
+    public Mono<ResponseEntity<Object>> deleteItem(Long id, Long userId);
 
 }
@@ -2,17 +2,22 @@ package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.PatchItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,20 +25,22 @@ public class ItemClientImp extends BaseClient implements ItemClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClientImp(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClientImp(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                         WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
     @Override
-    public ResponseEntity<Object> findAllByUserId(
-            Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> findAllByUserId(
+            Long userId, Integer from, Integer size, boolean envelope, boolean total) {
         if (from == null && size == null) {
-            return get("", userId);
+            return get(withEnvelope("", envelope, total), userId);
         }
 
         if (from == null || size == null) {
@@ -45,20 +52,37 @@ public class ItemClientImp extends BaseClient implements ItemClient {
                 "size", size
         );
 
-        return get("?from={from}&size={size}", userId, parameters);
+        return get(withEnvelope("?from={from}&size={size}", envelope, total), userId, parameters);
     }
 
     @Override
-    public ResponseEntity<Object> getItem(Long id, Long userId) {
+    public Mono<ResponseEntity<Object>> getItem(Long id, Long userId) {
         return get("/" + id, userId);
     }
 
     @Override
-    public ResponseEntity<Object> search(
-            Long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to) {
+        // Границы периода необязательны: без них период выбирает сервер
+        StringBuilder path = new StringBuilder("/" + id + "/availability");
+        Map<String, Object> parameters = new HashMap<>();
+        if (from != null) {
+            parameters.put("from", from);
+            path.append("?from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            path.append(from != null ? "&" : "?").append("to={to}");
+        }
+
+        return get(path.toString(), userId, parameters);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> search(
+            Long userId, String text, Integer from, Integer size, boolean envelope, boolean total) {
 
         if (from == null && size == null) {
-            return get("/search?text={text}", userId,
+            return get(withEnvelope("/search?text={text}", envelope, total), userId,
                     Map.of("text", text));
         }
 
@@ -71,29 +95,39 @@ public class ItemClientImp extends BaseClient implements ItemClient {
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}",
+        return get(withEnvelope("/search?text={text}&from={from}&size={size}", envelope, total),
                 userId, parameters);
     }
 
     @Override
-    public ResponseEntity<Object> add(Long userId, CreateItemDto item) {
+    public Mono<ResponseEntity<Object>> add(Long userId, CreateItemDto item) {
         return post("", userId, item);
     }
 
     @Override
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<Object>> addAll(Long userId, List<CreateItemDto> items) {
+        return post("/batch", userId, items);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> importItems(Long userId, MediaType contentType, Flux<DataBuffer> body) {
+        return postStream("/import", userId, contentType, body);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> addComment(
             Long id, Long userId, CreateCommentDto comment) {
         return post("/" + id + "/comment", userId, comment);
     }
 
     @Override
-    public ResponseEntity<Object> update(
+    public Mono<ResponseEntity<Object>> update(
             Long id, Long userId, PatchItemDto item) {
         return patch("/" + id, userId, item);
     }
 
     @Override
-    public ResponseEntity<Object> deleteItem(Long id, Long userId) {
+    public Mono<ResponseEntity<Object>> deleteItem(Long id, Long userId) {
         return delete("/" + id, userId);
     }
 }
\ No newline at end of file
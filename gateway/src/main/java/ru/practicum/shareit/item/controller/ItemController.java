@@ -2,17 +2,25 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.client.ItemClientImp;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.PatchItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * TODO Sprint add-controllers.
@@ -26,50 +34,98 @@ public class ItemController {
 
     private final ItemClientImp itemClientImp;
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    // Максимальное количество вещей в одном запросе на создание списка
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
 
     @GetMapping
-    public ResponseEntity<Object> findAllByUserId(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                                  @RequestParam(required = false) @PositiveOrZero Integer from,
-                                                  @RequestParam(required = false) @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> findAllByUserId(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                        @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                        @RequestParam(required = false) @Positive Integer size,
+                                                        @RequestParam(required = false, defaultValue = "false")
+                                                        boolean envelope,
+                                                        @RequestParam(required = false, defaultValue = "false")
+                                                        boolean total) {
         log.info("Получен запрос на получение всего списка вещей пользователя {}.",
                 userId);
 
-        return itemClientImp.findAllByUserId(userId, from, size);
+        return itemClientImp.findAllByUserId(userId, from, size, envelope, total);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> get(@PathVariable Long id,
-                                      @RequestHeader(X_SHARER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> get(@PathVariable Long id,
+                                            @RequestHeader(X_SHARER_USER_ID) Long userId) {
         log.info("Получен запрос от пользвателя {} на получение информации о вещи с id: {}.",
                 userId, id);
 
         return itemClientImp.getItem(id, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable Long id,
+                                                        @RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Получен запрос от пользвателя {} на календарь доступности вещи с id: {} с {} по {}.",
+                userId, id, from, to);
+
+        return itemClientImp.getAvailability(id, userId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                         @RequestParam(required = false) String text,
-                                         @RequestParam(required = false) @PositiveOrZero Integer from,
-                                         @RequestParam(required = false) @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> search(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                               @RequestParam(required = false) String text,
+                                               @RequestParam(required = false) @PositiveOrZero Integer from,
+                                               @RequestParam(required = false) @Positive Integer size,
+                                               @RequestParam(required = false, defaultValue = "false")
+                                               boolean envelope,
+                                               @RequestParam(required = false, defaultValue = "false")
+                                               boolean total) {
         log.info("Получен запрос на получение списка вещей пользователя {}" +
                 " по поиску: {}.", userId, text);
 
-        return itemClientImp.search(userId, text, from, size);
+        return itemClientImp.search(userId, text, from, size, envelope, total);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                      @Valid @RequestBody CreateItemDto item) {
+    public Mono<ResponseEntity<Object>> add(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                            @Valid @RequestBody CreateItemDto item) {
         log.info("Получен запрос на сохранение новой вещи пользователя {} ", userId);
 
         return itemClientImp.add(userId, item);
     }
 
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addAll(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                               List<@Valid CreateItemDto> items) {
+        log.info("Получен запрос на сохранение {} новых вещей пользователя {} ", items.size(), userId);
+
+        return itemClientImp.addAll(userId, items);
+    }
+
+    /*
+        Импорт вещей в формате NDJSON (по одной вещи в строке) или JSON массива.
+        Тело запроса не разбирается шлюзом, а передается серверу потоком:
+        проверка записей и отчет об ошибках по строкам формируются на сервере
+     */
+    @PostMapping(value = "/import", consumes = {APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                    ServerHttpRequest request) {
+        log.info("Получен запрос на импорт вещей пользователя {} ", userId);
+
+        return itemClientImp.importItems(userId, request.getHeaders().getContentType(), request.getBody());
+    }
+
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable Long id,
-                                             @RequestHeader(X_SHARER_USER_ID) Long userId,
-                                             @Valid @RequestBody CreateCommentDto comment) {
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable Long id,
+                                                   @RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                   @Valid @RequestBody CreateCommentDto comment) {
         log.info("Получен запрос на добавления комментария " +
                 "для вещи с id {} от пользователя {}", id, userId);
         return itemClientImp.addComment(id, userId, comment);
@@ -77,17 +133,17 @@ public class ItemController {
 
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable Long id,
-                                         @RequestHeader(X_SHARER_USER_ID) Long userId,
-                                         @RequestBody PatchItemDto item) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long id,
+                                               @RequestHeader(X_SHARER_USER_ID) Long userId,
+                                               @RequestBody PatchItemDto item) {
         log.info("Получен запрос на обновлении вещи пользователя {} ", userId);
 
         return itemClientImp.update(id, userId, item);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteItem(@PathVariable Long id,
-                                             @RequestHeader(X_SHARER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> deleteItem(@PathVariable Long id,
+                                                   @RequestHeader(X_SHARER_USER_ID) Long userId) {
         log.info("Получен запрос на удалении вещи {} пользователя {} ", id, userId);
 
         return itemClientImp.deleteItem(id, userId);
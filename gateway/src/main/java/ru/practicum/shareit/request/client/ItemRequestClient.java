@@ -1,17 +1,18 @@
 package ru.practicum.shareit.request.client;
 
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 
 public interface ItemRequestClient {
-    public ResponseEntity<Object> create(
+    public Mono<ResponseEntity<Object>> create(
             Long userId, CreateItemRequestDto createItemRequestDto);
 
-    public ResponseEntity<Object> get(Long id, Long userId);
+    public Mono<ResponseEntity<Object>> get(Long id, Long userId);
 
-    public ResponseEntity<Object> findAll(Long userId);
+    public Mono<ResponseEntity<Object>> findAll(Long userId);
 
-    public ResponseEntity<Object> findAllWithFromAndSize(
-            Long userId, Integer from, Integer size);
+    public Mono<ResponseEntity<Object>> findAllWithFromAndSize(
+            Long userId, Integer from, Integer size, boolean envelope, boolean total);
 
 }
@@ -2,11 +2,10 @@ package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
@@ -18,35 +17,38 @@ public class ItemRequestClientImp extends BaseClient implements ItemRequestClien
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClientImp(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClientImp(@Value("${shareit-server.url}") String serverUrl,
+                                @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                                WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
     @Override
-    public ResponseEntity<Object> create(Long userId, CreateItemRequestDto createItemRequestDto) {
+    public Mono<ResponseEntity<Object>> create(Long userId, CreateItemRequestDto createItemRequestDto) {
         return post("", userId, createItemRequestDto);
     }
 
     @Override
-    public ResponseEntity<Object> get(Long id, Long userId) {
+    public Mono<ResponseEntity<Object>> get(Long id, Long userId) {
         return get("/" + id, userId);
     }
 
     @Override
-    public ResponseEntity<Object> findAll(Long userId) {
+    public Mono<ResponseEntity<Object>> findAll(Long userId) {
         return get("", userId);
     }
 
     @Override
-    public ResponseEntity<Object> findAllWithFromAndSize(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> findAllWithFromAndSize(Long userId, Integer from, Integer size,
+                                                               boolean envelope, boolean total) {
 
         if (from == null && size == null) {
-            return get("/all", userId);
+            return get(withEnvelope("/all", envelope, total), userId);
         }
 
         if (from == null || size == null) {
@@ -57,6 +59,6 @@ public class ItemRequestClientImp extends BaseClient implements ItemRequestClien
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get(withEnvelope("/all?from={from}&size={size}", envelope, total), userId, parameters);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.client.ItemRequestClient;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 
@@ -25,34 +26,39 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                         @Valid @RequestBody CreateItemRequestDto createItemRequestDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                               @Valid @RequestBody CreateItemRequestDto createItemRequestDto) {
         log.info("Получен запрос на вещь от пользователя {} ", userId);
 
         return itemRequestClient.create(userId, createItemRequestDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> get(@PathVariable Long id,
-                                      @RequestHeader(X_SHARER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> get(@PathVariable Long id,
+                                            @RequestHeader(X_SHARER_USER_ID) Long userId) {
         log.info("Получен запрос на получения информации о запросе на вещи {} от пользователя {} ",
                 id, userId);
         return itemRequestClient.get(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll(@RequestHeader(X_SHARER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> findAll(@RequestHeader(X_SHARER_USER_ID) Long userId) {
         log.info("Получен запрос на получения списка запросов на вещи от пользователя {} ", userId);
 
         return itemRequestClient.findAll(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllWithFromAndSize(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                                         @RequestParam(required = false) @PositiveOrZero Integer from,
-                                                         @RequestParam(required = false) @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> findAllWithFromAndSize(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                               @RequestParam(required = false) @PositiveOrZero
+                                                               Integer from,
+                                                               @RequestParam(required = false) @Positive Integer size,
+                                                               @RequestParam(required = false, defaultValue = "false")
+                                                               boolean envelope,
+                                                               @RequestParam(required = false, defaultValue = "false")
+                                                               boolean total) {
         log.info("Получен запрос на получения списка запросов на вещи от пользователя {} ", userId);
 
-        return itemRequestClient.findAllWithFromAndSize(userId, from, size);
+        return itemRequestClient.findAllWithFromAndSize(userId, from, size, envelope, total);
     }
 }
@@ -1,17 +1,18 @@
 package ru.practicum.shareit.user.client;
 
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.PatchUserDto;
 
 public interface UserClient {
-    public ResponseEntity<Object> addUser(CreateUserDto user);
+    public Mono<ResponseEntity<Object>> addUser(CreateUserDto user);
 
-    public ResponseEntity<Object> updateUserById(Long id, PatchUserDto user);
+    public Mono<ResponseEntity<Object>> updateUserById(Long id, PatchUserDto user);
 
-    public ResponseEntity<Object> getUserById(Long id);
+    public Mono<ResponseEntity<Object>> getUserById(Long id);
 
-    public ResponseEntity<Object> deleteUserById(Long id);
+    public Mono<ResponseEntity<Object>> deleteUserById(Long id);
 
-    public ResponseEntity<Object> findAll();
+    public Mono<ResponseEntity<Object>> findAll();
 }
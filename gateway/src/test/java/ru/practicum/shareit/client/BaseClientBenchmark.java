@@ -0,0 +1,151 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Сравнение режимов BaseClient: разбор ответа сервера в Object с повторной сериализацией
+    и передача тела ответа без разбора (passthrough). Сервер заменен заглушкой Reactor Netty,
+    которая отдает список бронирований заданного размера.
+    Запуск: mvn -pl gateway test-compile, затем main этого класса с тестовым classpath
+    (в surefire бенчмарк не запускается).
+    Результаты сохраняются в target/jmh-gateway.json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BaseClientBenchmark {
+
+    @Param({"10", "1000"})
+    private int listSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DisposableServer server;
+    private BenchmarkClient decodeClient;
+    private BenchmarkClient passthroughClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(getBookings(listSize));
+
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/bookings/owner", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendByteArray(Mono.just(body))))
+                .bindNow();
+
+        String url = "http://localhost:" + server.port() + "/bookings";
+        decodeClient = new BenchmarkClient(getWebClient(url), false);
+        passthroughClient = new BenchmarkClient(getWebClient(url), true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    // Ответ разбирается в Object и сериализуется обратно, как при записи ответа шлюзом
+    @Benchmark
+    public byte[] decode() throws Exception {
+        ResponseEntity<Object> response = decodeClient.findAllByOwner().block();
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    // Тело ответа передается как есть
+    @Benchmark
+    public byte[] passthrough() {
+        ResponseEntity<Object> response = passthroughClient.findAllByOwner().block();
+        return (byte[]) response.getBody();
+    }
+
+    // Аргументы командной строки JMH (например, -wi 1 -i 1) переопределяют настройки по умолчанию
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BaseClientBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-gateway.json")
+                .build())
+                .run();
+    }
+
+    private static WebClient getWebClient(String url) {
+        return WebClient.builder()
+                .baseUrl(url)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+    }
+
+    // Список бронирований в формате ответа сервера
+    private static List<Map<String, Object>> getBookings(int size) {
+        List<Map<String, Object>> bookings = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            Map<String, Object> booker = new LinkedHashMap<>();
+            booker.put("id", i);
+            booker.put("name", "Пользователь " + i);
+            booker.put("email", "user" + i + "@yandex.ru");
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("name", "Дрель " + i);
+            item.put("description", "Аккумуляторная дрель с двумя батареями");
+            item.put("available", true);
+
+            Map<String, Object> booking = new LinkedHashMap<>();
+            booking.put("id", i);
+            booking.put("start", "2026-10-18T10:00:00");
+            booking.put("end", "2026-10-19T10:00:00");
+            booking.put("item", item);
+            booking.put("booker", booker);
+            booking.put("status", "APPROVED");
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    private static class BenchmarkClient extends BaseClient {
+        BenchmarkClient(WebClient webClient, boolean passthrough) {
+            super(webClient, passthrough);
+        }
+
+        Mono<ResponseEntity<Object>> findAllByOwner() {
+            return get("/owner?state={state}", 1L, Map.of("state", "ALL"));
+        }
+    }
+}
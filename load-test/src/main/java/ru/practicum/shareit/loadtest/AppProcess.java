@@ -0,0 +1,88 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Приложение, запущенное отдельным процессом из исполняемого jar
+ */
+public class AppProcess implements AutoCloseable {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String name;
+    private final Process process;
+    private final int port;
+
+    private AppProcess(String name, Process process, int port) {
+        this.name = name;
+        this.process = process;
+        this.port = port;
+    }
+
+    public static AppProcess start(String name, Path jar, int port, List<String> args, Path log)
+            throws IOException, InterruptedException {
+        if (!jar.toFile().isFile()) {
+            throw new IllegalStateException("Не найден jar " + jar + ", сначала соберите модули");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(args);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        AppProcess app = new AppProcess(name, process, port);
+        app.awaitHealthy();
+        return app;
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(getUrl() + "/actuator/health")).build();
+        Instant deadline = Instant.now().plus(START_TIMEOUT);
+
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился с кодом " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Приложение еще не начало принимать соединения
+            }
+            Thread.sleep(500);
+        }
+
+        process.destroyForcibly();
+        throw new IllegalStateException(name + " не запустился за " + START_TIMEOUT.toSeconds() + " секунд");
+    }
+}
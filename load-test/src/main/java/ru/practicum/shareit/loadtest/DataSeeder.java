@@ -0,0 +1,97 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+    Заполнение сервиса пользователями, запросами, вещами и бронированиями через шлюз.
+    Данные генерируются с фиксированным seed, поэтому повторяются от запуска к запуску
+ */
+public class DataSeeder {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final ShareItApi api;
+    private final LoadTestConfig config;
+    private final Random random = new Random(42);
+
+    public DataSeeder(ShareItApi api, LoadTestConfig config) {
+        this.api = api;
+        this.config = config;
+    }
+
+    // Возвращает id созданных пользователей
+    public List<Long> seed() throws IOException, InterruptedException {
+        List<Long> users = new ArrayList<>();
+        for (int i = 0; i < config.getUsers(); i++) {
+            users.add(api.post("/users", null, Map.of(
+                    "name", "Пользователь " + i,
+                    "email", "load" + i + "-" + System.nanoTime() + "@shareit.ru")));
+        }
+
+        List<Long> requests = new ArrayList<>();
+        for (int i = 0; i < config.getRequests(); i++) {
+            requests.add(api.post("/requests", randomOf(users), Map.of(
+                    "description", "Нужна " + randomWord() + " на выходные")));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        int itemNumber = 0;
+        for (Long owner : users) {
+            for (int i = 0; i < config.getItemsPerUser(); i++) {
+                long itemId = api.post("/items", owner, getItem(itemNumber++, requests));
+                addBookings(itemId, owner, users, start);
+            }
+        }
+
+        return users;
+    }
+
+    private Map<String, Object> getItem(int number, List<Long> requests) {
+        String word = randomWord();
+        String description = "Хорошая " + word + ", " + randomWord() + " в комплекте";
+
+        // Каждая пятая вещь создается в ответ на запрос
+        if (!requests.isEmpty() && number % 5 == 0) {
+            return Map.of("name", word + " " + number, "description", description,
+                    "available", true, "requestId", randomOf(requests));
+        }
+        return Map.of("name", word + " " + number, "description", description, "available", true);
+    }
+
+    /*
+        Бронирования вещи не пересекаются по времени, большая часть подтверждается владельцем
+     */
+    private void addBookings(long itemId, long owner, List<Long> users, LocalDateTime start)
+            throws IOException, InterruptedException {
+        for (int i = 0; i < config.getBookingsPerItem(); i++) {
+            long booker = randomOf(users);
+            if (booker == owner) {
+                continue;
+            }
+
+            LocalDateTime bookingStart = start.plusDays(2L * i);
+            long bookingId = api.post("/bookings", booker, Map.of(
+                    "itemId", itemId,
+                    "start", DATE_FORMAT.format(bookingStart),
+                    "end", DATE_FORMAT.format(bookingStart.plusDays(1))));
+
+            if (random.nextInt(5) != 0) {
+                api.patch("/bookings/" + bookingId + "?approved=true", owner);
+            }
+        }
+    }
+
+    private String randomWord() {
+        return Endpoint.SEARCH_WORDS.get(random.nextInt(Endpoint.SEARCH_WORDS.size()));
+    }
+
+    private long randomOf(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
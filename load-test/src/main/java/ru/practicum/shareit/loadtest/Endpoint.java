@@ -0,0 +1,63 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/*
+    Эндпоинты шлюза, на которые подается нагрузка
+ */
+public enum Endpoint {
+    ITEMS("items") {
+        @Override
+        public String getPath(Random random, int pageSize) {
+            return "/items?from=0&size=" + pageSize;
+        }
+    },
+    SEARCH("search") {
+        @Override
+        public String getPath(Random random, int pageSize) {
+            String text = SEARCH_WORDS.get(random.nextInt(SEARCH_WORDS.size()));
+            return "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8)
+                    + "&from=0&size=" + pageSize;
+        }
+    },
+    BOOKINGS_OWNER("bookingsOwner") {
+        @Override
+        public String getPath(Random random, int pageSize) {
+            return "/bookings/owner?state=ALL&from=0&size=" + pageSize;
+        }
+    },
+    REQUESTS_ALL("requestsAll") {
+        @Override
+        public String getPath(Random random, int pageSize) {
+            return "/requests/all?from=0&size=" + pageSize;
+        }
+    };
+
+    // Слова, из которых составляются названия и описания вещей
+    public static final List<String> SEARCH_WORDS = List.of(
+            "дрель", "пила", "молоток", "лестница", "палатка", "велосипед", "проектор", "шуруповерт");
+
+    private final String name;
+
+    Endpoint(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public abstract String getPath(Random random, int pageSize);
+
+    public static Endpoint fromName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name.equals(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный эндпоинт: " + name);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Задержки и пропускная способность по эндпоинтам
+ */
+public class LatencyReport {
+    private final Map<Endpoint, Map<String, Object>> rows = new LinkedHashMap<>();
+
+    public LatencyReport(Map<Endpoint, List<long[]>> latencies, Map<Endpoint, Long> errors, Duration duration) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            long[] all = merge(latencies.getOrDefault(endpoint, List.of()));
+            long errorCount = errors.getOrDefault(endpoint, 0L);
+            if (all.length == 0 && errorCount == 0) {
+                continue;
+            }
+
+            Arrays.sort(all);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", all.length);
+            row.put("errors", errorCount);
+            row.put("throughputPerSecond", round(all.length / (double) duration.toMillis() * 1000));
+            row.put("p50Ms", toMillis(percentile(all, 0.50)));
+            row.put("p90Ms", toMillis(percentile(all, 0.90)));
+            row.put("p99Ms", toMillis(percentile(all, 0.99)));
+            row.put("maxMs", toMillis(all.length == 0 ? 0 : all[all.length - 1]));
+            rows.put(endpoint, row);
+        }
+    }
+
+    public void print() {
+        System.out.printf("%-15s %10s %8s %12s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        rows.forEach((endpoint, row) -> System.out.printf("%-15s %10s %8s %12s %10s %10s %10s %10s%n",
+                endpoint.getName(), row.get("requests"), row.get("errors"), row.get("throughputPerSecond"),
+                row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("maxMs")));
+    }
+
+    public void write(Path file) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        rows.forEach((endpoint, row) -> result.put(endpoint.getName(), row));
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        return parts.stream().flatMapToLong(Arrays::stream).toArray();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static double toMillis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+    Нагрузка по замкнутой модели: каждый поток отправляет следующий запрос после ответа
+    на предыдущий. Эндпоинт и пользователь выбираются случайно с учетом долей из mix
+ */
+public class LoadRunner {
+    private final ShareItApi api;
+    private final LoadTestConfig config;
+    private final List<Long> users;
+    private final Endpoint[] schedule;
+
+    public LoadRunner(ShareItApi api, LoadTestConfig config, List<Long> users) {
+        this.api = api;
+        this.config = config;
+        this.users = users;
+        this.schedule = getSchedule(config.getMix());
+    }
+
+    public LatencyReport run(Duration duration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < config.getThreads(); i++) {
+                Worker worker = new Worker(new Random(i), deadline);
+                futures.add(executor.submit(() -> {
+                    worker.run();
+                    return worker;
+                }));
+            }
+
+            Map<Endpoint, List<long[]>> latencies = new EnumMap<>(Endpoint.class);
+            Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                for (Endpoint endpoint : Endpoint.values()) {
+                    latencies.computeIfAbsent(endpoint, key -> new ArrayList<>())
+                            .add(worker.getLatencies(endpoint));
+                    errors.merge(endpoint, worker.errors[endpoint.ordinal()], Long::sum);
+                }
+            }
+
+            return new LatencyReport(latencies, errors, duration);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Endpoint[] getSchedule(Map<Endpoint, Integer> mix) {
+        List<Endpoint> schedule = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(endpoint);
+            }
+        });
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("Не задан ни один эндпоинт в mix");
+        }
+        return schedule.toArray(new Endpoint[0]);
+    }
+
+    private class Worker {
+        private final Random random;
+        private final long deadline;
+        private final long[][] latencies = new long[Endpoint.values().length][1024];
+        private final int[] counts = new int[Endpoint.values().length];
+        private final long[] errors = new long[Endpoint.values().length];
+
+        Worker(Random random, long deadline) {
+            this.random = random;
+            this.deadline = deadline;
+        }
+
+        void run() throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                long userId = users.get(random.nextInt(users.size()));
+                String path = endpoint.getPath(random, config.getPageSize());
+
+                long start = System.nanoTime();
+                try {
+                    if (api.get(path, userId) == 200) {
+                        record(endpoint, System.nanoTime() - start);
+                    } else {
+                        errors[endpoint.ordinal()]++;
+                    }
+                } catch (IOException e) {
+                    errors[endpoint.ordinal()]++;
+                }
+            }
+        }
+
+        long[] getLatencies(Endpoint endpoint) {
+            return Arrays.copyOf(latencies[endpoint.ordinal()], counts[endpoint.ordinal()]);
+        }
+
+        private void record(Endpoint endpoint, long latency) {
+            int index = endpoint.ordinal();
+            if (counts[index] == latencies[index].length) {
+                latencies[index] = Arrays.copyOf(latencies[index], latencies[index].length * 2);
+            }
+            latencies[index][counts[index]++] = latency;
+        }
+    }
+}
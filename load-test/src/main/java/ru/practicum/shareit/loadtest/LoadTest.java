@@ -0,0 +1,62 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Нагрузочный тест: запуск сервера и шлюза, заполнение данными, прогрев и замер.
+    Параметры передаются в виде key=value, см. LoadTestConfig
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+
+        try (AppProcess server = AppProcess.start("server", config.getServerJar(), config.getServerPort(),
+                getServerArgs(config), config.getLogDir().resolve("load-test-server.log"));
+             AppProcess gateway = AppProcess.start("gateway", config.getGatewayJar(), config.getGatewayPort(),
+                     List.of("--shareit-server.url=" + server.getUrl()),
+                     config.getLogDir().resolve("load-test-gateway.log"))) {
+
+            ShareItApi api = new ShareItApi(gateway.getUrl());
+
+            System.out.println("Заполнение данными...");
+            List<Long> users = new DataSeeder(api, config).seed();
+
+            LoadRunner runner = new LoadRunner(api, config, users);
+            System.out.println("Прогрев " + config.getWarmup().toSeconds() + " с...");
+            runner.run(config.getWarmup());
+
+            System.out.println("Замер " + config.getDuration().toSeconds() + " с, потоков: "
+                    + config.getThreads());
+            LatencyReport report = runner.run(config.getDuration());
+            report.print();
+
+            Path result = config.getResult();
+            report.write(result);
+            System.out.println("Результаты сохранены в " + result.toAbsolutePath());
+        }
+    }
+
+    private static List<String> getServerArgs(LoadTestConfig config) {
+        List<String> args = new ArrayList<>();
+        args.add("--logging.level.root=WARN");
+        args.add("--logging.level.org.springframework.transaction.interceptor=WARN");
+        args.add("--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+        if (config.getDbUrl() != null) {
+            args.add("--spring.datasource.url=" + config.getDbUrl());
+            args.add("--spring.datasource.username=" + config.getDbUser());
+            args.add("--spring.datasource.password=" + config.getDbPassword());
+        } else {
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+            args.add("--shareit.search.engine=like");
+        }
+        return args;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Параметры нагрузочного теста в виде аргументов key=value
+ */
+public class LoadTestConfig {
+    private final Map<String, String> values = new HashMap<>();
+
+    public LoadTestConfig(String[] args) {
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("Аргумент должен иметь вид key=value: " + arg);
+            }
+            values.put(arg.substring(0, index), arg.substring(index + 1));
+        }
+    }
+
+    public Path getServerJar() {
+        return Path.of(getRequired("serverJar"));
+    }
+
+    public Path getGatewayJar() {
+        return Path.of(getRequired("gatewayJar"));
+    }
+
+    public Path getLogDir() {
+        return Path.of(values.getOrDefault("logDir", "."));
+    }
+
+    public Path getResult() {
+        return Path.of(values.getOrDefault("result", "load-test-result.json"));
+    }
+
+    public int getServerPort() {
+        return getInt("serverPort", 19090);
+    }
+
+    public int getGatewayPort() {
+        return getInt("gatewayPort", 18080);
+    }
+
+    // Без dbUrl сервер работает со встроенной H2
+    public String getDbUrl() {
+        return values.get("dbUrl");
+    }
+
+    public String getDbUser() {
+        return values.getOrDefault("dbUser", "");
+    }
+
+    public String getDbPassword() {
+        return values.getOrDefault("dbPassword", "");
+    }
+
+    public int getUsers() {
+        return getInt("users", 50);
+    }
+
+    public int getItemsPerUser() {
+        return getInt("itemsPerUser", 10);
+    }
+
+    public int getRequests() {
+        return getInt("requests", 100);
+    }
+
+    public int getBookingsPerItem() {
+        return getInt("bookingsPerItem", 3);
+    }
+
+    public int getThreads() {
+        return getInt("threads", 16);
+    }
+
+    public int getPageSize() {
+        return getInt("pageSize", 20);
+    }
+
+    public Duration getWarmup() {
+        return Duration.ofSeconds(getInt("warmup", 10));
+    }
+
+    public Duration getDuration() {
+        return Duration.ofSeconds(getInt("duration", 60));
+    }
+
+    /*
+        Доли запросов к каждому эндпоинту, например mix=items:4,search:3,bookingsOwner:2,requestsAll:1
+     */
+    public Map<Endpoint, Integer> getMix() {
+        String mix = values.getOrDefault("mix", "items:4,search:3,bookingsOwner:2,requestsAll:1");
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Некорректная доля эндпоинта: " + part);
+            }
+            weights.put(Endpoint.fromName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+
+    private String getRequired(String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Не задан параметр " + key);
+        }
+        return value;
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
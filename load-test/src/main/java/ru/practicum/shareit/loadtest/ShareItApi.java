@@ -0,0 +1,74 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/*
+    Запросы к шлюзу ShareIt
+ */
+public class ShareItApi {
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ShareItApi(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    // Создание объекта, возвращает id созданного объекта
+    public long post(String path, Long userId, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = newRequest(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        return getId(send(request.build()));
+    }
+
+    public long patch(String path, Long userId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = newRequest(path, userId)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody());
+        return getId(send(request.build()));
+    }
+
+    // Запрос без проверки ответа, возвращает код ответа
+    public int get(String path, long userId) throws IOException, InterruptedException {
+        HttpRequest request = newRequest(path, userId).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder newRequest(String path, Long userId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (userId != null) {
+            request.header(X_SHARER_USER_ID, String.valueOf(userId));
+        }
+        return request;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri()
+                    + " вернул " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private long getId(HttpResponse<String> response) throws IOException {
+        JsonNode node = objectMapper.readTree(response.body());
+        return node.get("id").asLong();
+    }
+}
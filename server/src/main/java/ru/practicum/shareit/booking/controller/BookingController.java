@@ -2,12 +2,25 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingExportFormat;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.page.PagedList;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,7 +33,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingController {
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final String X_NEXT_CURSOR = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @PostMapping
     public BookingDto create(@RequestHeader(X_SHARER_USER_ID) Long userId,
@@ -31,6 +46,15 @@ public class BookingController {
                 bookingService.create(BookingMapper.toBooking(bookingCreateDto), userId, itemId));
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> createAll(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                      @RequestBody List<BookingCreateDto> bookingCreateDtos) {
+        log.info("Получен запрос на {} бронирований от пользователя {} ", bookingCreateDtos.size(), userId);
+        return toBookingDtoList(bookingService.createAll(bookingCreateDtos.stream()
+                .map(x -> BookingMapper.toBookingWithItemId(x))
+                .collect(Collectors.toList()), userId));
+    }
+
     @PatchMapping("/{id}")
     public BookingDto approve(@PathVariable Long id,
                               @RequestHeader(X_SHARER_USER_ID) Long userId,
@@ -50,26 +74,172 @@ public class BookingController {
     }
 
     @GetMapping()
-    public List<BookingDto> findAll(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                    @RequestParam(required = false, defaultValue = "ALL") String state,
-                                    @RequestParam(required = false) Integer from,
-                                    @RequestParam(required = false) Integer size) {
+    public ResponseEntity<List<BookingDto>> findAll(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                    @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                    @RequestParam(required = false) Integer from,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Long itemId,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime rangeStart,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime rangeEnd) {
         log.info("Получен запрос на получение списка бронирований пользователя {} с пармаетром state: {} ",
                 userId, state);
+        BookingFilter filter = new BookingFilter(itemId, rangeStart, rangeEnd);
 
-        return bookingService.findAllByBooker(userId, state, from, size).stream()
-                .map(x -> BookingMapper.toBookingDto(x))
-                .collect(Collectors.toList());
+        if (cursor != null) {
+            validateCursorParams(from);
+            return getCursorPage(bookingService.findAllAfter(BookingRole.BOOKER, userId, state, filter, cursor, size),
+                    size);
+        }
+
+        return ResponseEntity.ok(toBookingDtoList(
+                bookingService.findAll(BookingRole.BOOKER, userId, state, filter, from, size)));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
-                                           @RequestParam(required = false, defaultValue = "ALL") String state,
-                                           @RequestParam(required = false) Integer from,
-                                           @RequestParam(required = false) Integer size) {
+    public ResponseEntity<List<BookingDto>> findAllByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                           @RequestParam(required = false, defaultValue = "ALL")
+                                                           String state,
+                                                           @RequestParam(required = false) Integer from,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Long itemId,
+                                                           @RequestParam(required = false)
+                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                           LocalDateTime rangeStart,
+                                                           @RequestParam(required = false)
+                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                           LocalDateTime rangeEnd) {
         log.info("Получен запрос на получение списка бронирований владельца {} с пармаетром state: {} ",
                 userId, state);
-        return bookingService.findAllByOwner(userId, state, from, size).stream()
+        BookingFilter filter = new BookingFilter(itemId, rangeStart, rangeEnd);
+
+        if (cursor != null) {
+            validateCursorParams(from);
+            return getCursorPage(bookingService.findAllAfter(BookingRole.OWNER, userId, state, filter, cursor, size),
+                    size);
+        }
+
+        return ResponseEntity.ok(toBookingDtoList(
+                bookingService.findAll(BookingRole.OWNER, userId, state, filter, from, size)));
+    }
+
+    /*
+        Списки в обертке (envelope=true): признак следующей страницы hasNext и, если total=true,
+        общее количество бронирований. При выводе по курсору следующая страница - в X-Next-Cursor
+     */
+    @GetMapping(params = "envelope=true")
+    public ResponseEntity<PagedList<BookingDto>> findPage(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                          @RequestParam(required = false, defaultValue = "ALL")
+                                                          String state,
+                                                          @RequestParam(required = false) Integer from,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Long itemId,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime rangeStart,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime rangeEnd,
+                                                          @RequestParam(required = false, defaultValue = "false")
+                                                          boolean total) {
+        log.info("Получен запрос на получение страницы списка бронирований пользователя {} с пармаетром state: {} ",
+                userId, state);
+        return getPage(BookingRole.BOOKER, userId, state, new BookingFilter(itemId, rangeStart, rangeEnd),
+                from, size, cursor, total);
+    }
+
+    @GetMapping(path = "/owner", params = "envelope=true")
+    public ResponseEntity<PagedList<BookingDto>> findPageByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                                 @RequestParam(required = false, defaultValue = "ALL")
+                                                                 String state,
+                                                                 @RequestParam(required = false) Integer from,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Long itemId,
+                                                                 @RequestParam(required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                 LocalDateTime rangeStart,
+                                                                 @RequestParam(required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                 LocalDateTime rangeEnd,
+                                                                 @RequestParam(required = false, defaultValue = "false")
+                                                                 boolean total) {
+        log.info("Получен запрос на получение страницы списка бронирований владельца {} с пармаетром state: {} ",
+                userId, state);
+        return getPage(BookingRole.OWNER, userId, state, new BookingFilter(itemId, rangeStart, rangeEnd),
+                from, size, cursor, total);
+    }
+
+    /*
+        Выгрузка всех бронирований вещей владельца в формате NDJSON или CSV.
+        Ответ записывается по мере чтения бронирований из базы данных
+     */
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                                               @RequestParam(required = false, defaultValue = "ALL")
+                                                               String state,
+                                                               @RequestParam(required = false, defaultValue = "ndjson")
+                                                               String format) {
+        log.info("Получен запрос на выгрузку бронирований владельца {} с пармаетром state: {} в формате {} ",
+                userId, state, format);
+
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        bookingExportService.validateExportByOwner(userId, state);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(output -> bookingExportService.exportByOwner(userId, state, exportFormat, output));
+    }
+
+    private void validateCursorParams(Integer from) {
+        if (from != null) {
+            throw new ValidationException("Параметры from и cursor нельзя передавать одновременно");
+        }
+    }
+
+    /*
+        Если страница заполнена целиком, в заголовке X-Next-Cursor передается
+        курсор для получения следующей страницы
+     */
+    private ResponseEntity<List<BookingDto>> getCursorPage(List<Booking> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(X_NEXT_CURSOR,
+                    BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+
+        return response.body(toBookingDtoList(bookings));
+    }
+
+    private ResponseEntity<PagedList<BookingDto>> getPage(BookingRole role, Long userId, String state,
+                                                          BookingFilter filter, Integer from, Integer size,
+                                                          String cursor, boolean total) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findPage(role, userId, state, filter, from, size, total)
+                    .map(x -> BookingMapper.toBookingDto(x)));
+        }
+
+        validateCursorParams(from);
+        PagedList<Booking> page = bookingService.findPageAfter(role, userId, state, filter, cursor, size, total);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.isHasNext()) {
+            response.header(X_NEXT_CURSOR,
+                    BookingCursor.of(page.getItems().get(page.getItems().size() - 1)).encode());
+        }
+
+        return response.body(page.map(x -> BookingMapper.toBookingDto(x)));
+    }
+
+    private List<BookingDto> toBookingDtoList(List<Booking> bookings) {
+        return bookings.stream()
                 .map(x -> BookingMapper.toBookingDto(x))
                 .collect(Collectors.toList());
     }
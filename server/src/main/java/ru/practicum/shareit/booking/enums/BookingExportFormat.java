@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.enums;
+
+import ru.practicum.shareit.util.exception.ValidationException;
+
+// Формат выгрузки бронирований
+public enum BookingExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    BookingExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static BookingExportFormat from(String format) {
+        for (BookingExportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Unknown format: " + format);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.enums;
+
+/*
+    Роль пользователя в бронировании: тот, кто бронирует, или владелец вещи
+ */
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
@@ -4,6 +4,15 @@ import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class BookingMapper {
 
@@ -25,6 +34,13 @@ public class BookingMapper {
                 .build();
     }
 
+    // Бронирование со ссылкой на вещь, в которой заполнен только id вещи
+    public static Booking toBookingWithItemId(BookingCreateDto bookingCreateDto) {
+        Booking booking = toBooking(bookingCreateDto);
+        booking.setItem(Item.builder().id(bookingCreateDto.getItemId()).build());
+        return booking;
+    }
+
     public static BookingForItemDto toBookingForItemDto(Booking booking) {
         return BookingForItemDto.builder()
                 .id(booking.getId())
@@ -35,4 +51,50 @@ public class BookingMapper {
                 .build();
     }
 
+    /*
+        Бронирования из проекции для ответа: те же поля, что у сущностей, но без контекста
+        постоянства. Вещь и пользователь, встречающиеся в нескольких строках, создаются один раз
+     */
+    public static List<Booking> toBookings(List<BookingView> views) {
+        Map<Long, User> users = new HashMap<>();
+        Map<Long, Item> items = new HashMap<>();
+        List<Booking> bookings = new ArrayList<>(views.size());
+
+        for (BookingView view : views) {
+            Item item = items.computeIfAbsent(view.getItemId(), id -> Item.builder()
+                    .id(id)
+                    .name(view.getItemName())
+                    .description(view.getItemDescription())
+                    .available(view.getItemAvailable())
+                    .owner(getUser(users, view.getOwnerId(), view.getOwnerName(), view.getOwnerEmail()))
+                    .request(view.getRequestId() == null ? null : ItemRequest.builder()
+                            .id(view.getRequestId())
+                            .description(view.getRequestDescription())
+                            .created(view.getRequestCreated())
+                            .requester(getUser(users, view.getRequesterId(),
+                                    view.getRequesterName(), view.getRequesterEmail()))
+                            .build())
+                    .build());
+
+            bookings.add(Booking.builder()
+                    .id(view.getId())
+                    .start(view.getStart())
+                    .end(view.getEnd())
+                    .status(view.getStatus())
+                    .item(item)
+                    .booker(getUser(users, view.getBookerId(), view.getBookerName(), view.getBookerEmail()))
+                    .build());
+        }
+
+        return bookings;
+    }
+
+    private static User getUser(Map<Long, User> users, Long id, String name, String email) {
+        return users.computeIfAbsent(id, x -> User.builder()
+                .id(x)
+                .name(name)
+                .email(email)
+                .build());
+    }
+
 }
@@ -20,10 +20,26 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "bookings")
+/*
+    Связанные сущности загружаются лениво, план загрузки задается для каждого метода репозитория.
+    Бронирование целиком для ответа: вещь с владельцем и запросом (с автором) и автор бронирования
+ */
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("booker")},
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("owner"),
+                        @NamedAttributeNode(value = "request", subgraph = "request")}),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester"))})
 public class Booking {
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id; // уникальный идентификатор бронирования;
 
     @Column(name = "start_date")
@@ -32,11 +48,11 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end; // дата и время конца бронирования;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item; // вещь, которую пользователь бронирует;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker; // пользователь, который осуществляет бронирование;
 
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+    Дополнительные условия списка бронирований к роли пользователя и состоянию.
+    Поле, равное null, список не ограничивает
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingFilter {
+    private Long itemId; // только бронирования этой вещи;
+    private LocalDateTime rangeStart; // бронирования, пересекающиеся с интервалом [rangeStart, rangeEnd).
+    private LocalDateTime rangeEnd;
+
+    public static BookingFilter empty() {
+        return new BookingFilter();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.enums.BookingExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookingExportService {
+
+    // Проверка пользователя и состояния до начала выгрузки, пока ответ еще не начал передаваться
+    void validateExportByOwner(Long userId, String bookingState);
+
+    // Выгрузка всех бронирований вещей владельца в поток output
+    void exportByOwner(Long userId, String bookingState, BookingExportFormat format, OutputStream output)
+            throws IOException;
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingExportFormat;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.util.exception.NotFoundException;
+import ru.practicum.shareit.util.exception.ValidationException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+    Выгрузка бронирований потоком: бронирования читаются из базы данных порциями
+    по shareit.export.fetch-size и сразу записываются в ответ, поэтому расход памяти
+    не зависит от количества бронирований
+ */
+@Service
+@Slf4j
+public class BookingExportServiceImpl implements BookingExportService {
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName";
+
+    private final BookingRepository bookingRepository;
+    private final UserCache userCache;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+
+    public BookingExportServiceImpl(BookingRepository bookingRepository,
+                                    UserCache userCache,
+                                    ObjectMapper objectMapper,
+                                    @Value("${shareit.export.fetch-size:500}") int fetchSize) {
+        this.bookingRepository = bookingRepository;
+        this.userCache = userCache;
+        // Ответ сбрасывается клиенту буфером, а не после каждого бронирования
+        this.writer = objectMapper.writerFor(BookingDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void validateExportByOwner(Long userId, String bookingState) {
+        getUser(userId);
+        getBookingState(bookingState);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByOwner(Long userId, String bookingState, BookingExportFormat format, OutputStream output)
+            throws IOException {
+        BookingState state = getBookingState(bookingState);
+
+        long count = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamByState(BookingRole.OWNER, userId, state, BookingFilter.empty(),
+                LocalDateTime.now(), fetchSize)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            if (format == BookingExportFormat.CSV) {
+                count = writeCsv(iterator, output);
+            } else {
+                count = writeNdjson(iterator, output);
+            }
+        }
+
+        log.info("Выгрузка бронирований владельца {} с параметром state: {}: выгружено {}",
+                userId, state, count);
+    }
+
+    private long writeNdjson(Iterator<Booking> bookings, OutputStream output) throws IOException {
+        long count = 0;
+        JsonGenerator generator = writer.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (bookings.hasNext()) {
+            writer.writeValue(generator, BookingMapper.toBookingDto(bookings.next()));
+            generator.writeRaw('\n');
+            count++;
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Booking> bookings, OutputStream output) throws IOException {
+        long count = 0;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        while (bookings.hasNext()) {
+            Booking booking = bookings.next();
+            csv.write(booking.getId() + "," + booking.getStart() + "," + booking.getEnd() + ","
+                    + booking.getStatus() + "," + booking.getItem().getId() + ","
+                    + escapeCsv(booking.getItem().getName()) + "," + booking.getBooker().getId() + ","
+                    + escapeCsv(booking.getBooker().getName()));
+            csv.write('\n');
+            count++;
+        }
+        csv.flush();
+        return count;
+    }
+
+    // Значение с запятой, кавычкой или переводом строки заключается в кавычки (RFC 4180)
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private BookingState getBookingState(String state) {
+        try {
+            return BookingState.valueOf(state);
+        } catch (Exception exception) {
+            throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
+    private void getUser(Long userId) {
+        userCache.findById(userId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Пользователь с id: " + userId + " не найден."));
+    }
+}
@@ -1,19 +1,34 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.util.page.PagedList;
 
 import java.util.List;
 
 public interface BookingService {
     Booking get(Long bookingId, Long userId);
 
-    List<Booking> findAllByBooker(
-            Long userId, String bookingState, Integer from, Integer size);
+    // Бронирования пользователя в роли role (автор бронирования или владелец вещей) с условиями filter
+    List<Booking> findAll(BookingRole role, Long userId, String bookingState, BookingFilter filter,
+                          Integer from, Integer size);
 
-    List<Booking> findAllByOwner(
-            Long userId, String bookingState, Integer from, Integer size);
+    // Постраничный вывод по курсору: страница после позиции cursor
+    List<Booking> findAllAfter(BookingRole role, Long userId, String bookingState, BookingFilter filter,
+                               String cursor, Integer size);
+
+    // Страница в обертке: признак следующей страницы и, если withTotal, общее количество бронирований
+    PagedList<Booking> findPage(BookingRole role, Long userId, String bookingState, BookingFilter filter,
+                                Integer from, Integer size, boolean withTotal);
+
+    PagedList<Booking> findPageAfter(BookingRole role, Long userId, String bookingState, BookingFilter filter,
+                                     String cursor, Integer size, boolean withTotal);
 
     Booking create(Booking booking, Long userId, Long itemId);
 
+    // Создание списка бронирований одного пользователя; в поле item передается только id вещи
+    List<Booking> createAll(List<Booking> bookings, Long userId);
+
     Booking approve(Long bookingId, Long userId, boolean approved);
 }
@@ -2,24 +2,37 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
-import ru.practicum.shareit.util.PageUtil;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.util.exception.BookingConflictException;
 import ru.practicum.shareit.util.exception.NotAvailableItemException;
 import ru.practicum.shareit.util.exception.NotFoundException;
 import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.page.PagedList;
+import ru.practicum.shareit.util.page.TotalCount;
+import ru.practicum.shareit.util.page.TotalCounter;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -27,10 +40,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    // SQLSTATE нарушения ограничения исключения в PostgreSQL (exclusion_violation)
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final ItemDtoCache itemDtoCache;
+    private final TotalCounter totalCounter;
 
     @Override
     public Booking get(Long bookingId, Long userId) {
@@ -49,100 +66,64 @@ public class BookingServiceImpl implements BookingService {
         return booking;
     }
 
+    /*
+        Списки бронирований читаются проекцией одним запросом: без отдельных запросов
+        на вещи, владельцев, запросы и авторов бронирований
+     */
     @Override
-    public List<Booking> findAllByBooker(
-            Long userId, String bookingStateStr, Integer from, Integer size) {
+    public List<Booking> findAll(BookingRole role, Long userId, String bookingStateStr, BookingFilter filter,
+                                 Integer from, Integer size) {
         getUser(userId);
         BookingState bookingState = getBookingState(bookingStateStr);
-        LocalDateTime now = LocalDateTime.now();
-        if (from == null && size == null) {
-            switch (bookingState) {
-                case ALL:
-                    return bookingRepository.findByBookerIdOrderByStartDesc(userId);
-                case CURRENT:
-                    return bookingRepository
-                            .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                                    userId, now, now);
-                case PAST:
-                    return bookingRepository
-                            .findByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-                case FUTURE:
-                    return bookingRepository
-                            .findByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-                case WAITING:
-                    return bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                            userId, BookingStatus.WAITING);
-                case REJECTED:
-                    return bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                            userId, BookingStatus.REJECTED);
-            }
-        }
+        validateFilter(filter);
 
-        if (from != null && size != null) {
-            switch (bookingState) {
-                case ALL:
-                    return getListWithParamsByBooker(from, size, BookingState.ALL, userId);
-                case CURRENT:
-                    return getListWithParamsByBooker(from, size, BookingState.CURRENT, userId);
-                case PAST:
-                    return getListWithParamsByBooker(from, size, BookingState.PAST, userId);
-                case FUTURE:
-                    return getListWithParamsByBooker(from, size, BookingState.FUTURE, userId);
-                case WAITING:
-                    return getListWithParamsByBooker(from, size, BookingState.WAITING, userId);
-                case REJECTED:
-                    return getListWithParamsByBooker(from, size, BookingState.REJECTED, userId);
-            }
+        if ((from == null) != (size == null)) {
+            throw new ValidationException("Не хватает параметров для формирования списка");
         }
 
-        throw new ValidationException("Не хватает параметров для формирования списка");
-
+        return BookingMapper.toBookings(bookingRepository.findByState(role, userId, bookingState, filter,
+                LocalDateTime.now(), from, size));
     }
 
     @Override
-    public List<Booking> findAllByOwner(Long userId, String bookingStateStr,
-                                        Integer from, Integer size) {
+    public List<Booking> findAllAfter(BookingRole role, Long userId, String bookingStateStr, BookingFilter filter,
+                                      String cursor, Integer size) {
         getUser(userId);
         BookingState bookingState = getBookingState(bookingStateStr);
-        LocalDateTime now = LocalDateTime.now();
-        if (from == null && size == null) {
-            switch (bookingState) {
-                case ALL:
-                    return bookingRepository.findByItemOwnerIdOrderByStartDesc(userId);
-                case CURRENT:
-                    return bookingRepository
-                            .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                                    userId, now, now);
-                case PAST:
-                    return bookingRepository
-                            .findByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now);
-                case FUTURE:
-                    return bookingRepository
-                            .findByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now);
-                case WAITING:
-                    return bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-                case REJECTED:
-                    return bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            }
+        validateFilter(filter);
+
+        if (size == null || size <= 0) {
+            throw new ValidationException("Не задан размер страницы для формирования списка");
         }
 
-        if (from != null && size != null) {
-            switch (bookingState) {
-                case ALL:
-                    return getListWithParamsByOwner(from, size, BookingState.ALL, userId);
-                case CURRENT:
-                    return getListWithParamsByOwner(from, size, BookingState.CURRENT, userId);
-                case PAST:
-                    return getListWithParamsByOwner(from, size, BookingState.PAST, userId);
-                case FUTURE:
-                    return getListWithParamsByOwner(from, size, BookingState.FUTURE, userId);
-                case WAITING:
-                    return getListWithParamsByOwner(from, size, BookingState.WAITING, userId);
-                case REJECTED:
-                    return getListWithParamsByOwner(from, size, BookingState.REJECTED, userId);
-            }
+        return BookingMapper.toBookings(bookingRepository.findByStateAfter(role, userId, bookingState, filter,
+                LocalDateTime.now(), BookingCursor.decode(cursor), size));
+    }
+
+    @Override
+    public PagedList<Booking> findPage(BookingRole role, Long userId, String bookingStateStr, BookingFilter filter,
+                                       Integer from, Integer size, boolean withTotal) {
+        PagedList<Booking> page = PagedList.of(
+                findAll(role, userId, bookingStateStr, filter, from, PagedList.getFetchSize(size)), size);
+
+        if (withTotal) {
+            page.withTotal(from == null ? 0 : from, () -> count(role, userId, bookingStateStr, filter));
         }
-        throw new ValidationException("Не хватает параметров для формирования списка");
+
+        return page;
+    }
+
+    @Override
+    public PagedList<Booking> findPageAfter(BookingRole role, Long userId, String bookingStateStr,
+                                            BookingFilter filter, String cursor, Integer size, boolean withTotal) {
+        PagedList<Booking> page = PagedList.of(
+                findAllAfter(role, userId, bookingStateStr, filter, cursor, PagedList.getFetchSize(size)), size);
+
+        if (withTotal) {
+            page.withTotal(null, () -> count(role, userId, bookingStateStr, filter));
+        }
+
+        return page;
     }
 
     @Override
@@ -151,18 +132,43 @@ public class BookingServiceImpl implements BookingService {
         validateTimeBooking(booking.getStart(), booking.getEnd());
         User user = getUser(userId);
         Item item = getItem(itemId);
-        validateAvailable(item.getId());
+        setBookingParams(booking, user, item);
 
-        if (item.getOwner().getId().compareTo(userId) == 0) {
-            throw new NotFoundException("Владелец не может забронировать свою же вещь: " +
-                    "userId: " + userId + " itemId: " + itemId);
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                itemId, BookingStatus.APPROVED, booking.getEnd(), booking.getStart())) {
+            throw getConflictException(booking);
         }
 
-        booking.setItem(item);
-        booking.setBooker(user);
-        booking.setStatus(BookingStatus.WAITING);
+        Booking res = bookingRepository.save(booking);
+        itemDtoCache.evict(itemId);
+        return res;
+    }
 
-        return bookingRepository.save(booking);
+    @Override
+    @Transactional
+    public List<Booking> createAll(List<Booking> bookings, Long userId) {
+        bookings.forEach(booking -> validateTimeBooking(booking.getStart(), booking.getEnd()));
+        User user = getUser(userId);
+
+        // Все вещи загружаются одним запросом вместе с владельцами и запросами
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findWithOwnerAndRequestByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            Item item = Optional.ofNullable(items.get(itemId)).orElseThrow(
+                    () -> new NotFoundException("Вещь с id: " + itemId + " не найдена."));
+            setBookingParams(booking, user, item);
+        }
+        validateNoApprovedOverlaps(bookings, itemIds);
+
+        // Вставки отправляются пачками размера hibernate.jdbc.batch_size
+        List<Booking> res = bookingRepository.saveAll(bookings);
+        itemIds.forEach(itemDtoCache::evict);
+        return res;
     }
 
     @Override
@@ -181,12 +187,66 @@ public class BookingServiceImpl implements BookingService {
         }
 
         if (approved) {
+            // Проверка пересечения под блокировкой вещи: два пересекающихся бронирования
+            // не могут быть подтверждены одновременно
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                    booking.getItem().getId(), BookingStatus.APPROVED,
+                    booking.getEnd(), booking.getStart(), booking.getId())) {
+                throw getConflictException(booking);
+            }
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
 
-        return bookingRepository.save(booking);
+        Booking res;
+        try {
+            // Запись сразу отправляется в базу, чтобы нарушение ограничения ex_bookings_item_approved
+            // (подтверждение в обход блокировки вещи) было получено здесь, а не при фиксации транзакции
+            res = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException exception) {
+            if (isApprovedOverlap(exception)) {
+                throw getConflictException(booking);
+            }
+            throw exception;
+        }
+        itemDtoCache.evict(booking.getItem().getId());
+        return res;
+    }
+
+    /*
+        Подтвержденные бронирования всех вещей списка в общем интервале загружаются одним запросом,
+        пересечение с каждым новым бронированием проверяется в памяти
+     */
+    private void validateNoApprovedOverlaps(List<Booking> bookings, Set<Long> itemIds) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime minStart = bookings.stream().map(Booking::getStart).min(LocalDateTime::compareTo).get();
+        LocalDateTime maxEnd = bookings.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).get();
+        Map<Long, List<Booking>> approved = bookingRepository
+                .findByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds, BookingStatus.APPROVED, maxEnd, minStart)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        for (Booking booking : bookings) {
+            for (Booking other : approved.getOrDefault(booking.getItem().getId(), List.of())) {
+                if (other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart())) {
+                    throw getConflictException(booking);
+                }
+            }
+        }
+    }
+
+    private boolean isApprovedOverlap(DataIntegrityViolationException exception) {
+        Throwable cause = exception.getMostSpecificCause();
+        return cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState());
+    }
+
+    private BookingConflictException getConflictException(Booking booking) {
+        return new BookingConflictException("Вещь с id: " + booking.getItem().getId()
+                + " уже забронирована на период с " + booking.getStart() + " по " + booking.getEnd());
     }
 
     private void validateTimeBooking(LocalDateTime startDate, LocalDateTime endDate) {
@@ -203,148 +263,57 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private List getListWithParamsByBooker(
-            int from, int size, BookingState state, Long userId) {
-        // Получить номер страницы, с которой взять данные
-        int startPage = PageUtil.getStartPage(from, size);
-
-        if (PageUtil.isTwoSite(from, size)) {
-            // Получить данные с первой страницы
-            List<Booking> list = getListWithParamsByBookerByState1Page(state, userId, startPage, size);
-            // Добавить данные со второй страницы
-            list.addAll(getListWithParamsByBookerByState1Page(state, userId, startPage + 1, size));
-            // Отсечь лишние данные сверху удалением из листа до нужного id,
-            // а потом сделать отсечение через функцию limit
-            return PageUtil.getPageListForTwoPage(list,
-                    PageUtil.getStartFrom(from, size), size);
-        } else {
-            return (List) getListWithParamsByBookerByState1Page(state, userId, startPage, size)
-                    .stream().limit(size)
-                    .collect(Collectors.toList());
-        }
+    /*
+        Бронирования пользователя считаются точно: условие по автору бронирования или вещам
+        владельца выбирает строки по индексу, и count не проходит по всей таблице
+     */
+    private TotalCount count(BookingRole role, Long userId, String bookingStateStr, BookingFilter filter) {
+        return totalCounter.count(() -> bookingRepository.countByState(role, userId,
+                getBookingState(bookingStateStr), filter, LocalDateTime.now()));
     }
 
-    private List getListWithParamsByOwner(
-            int from, int size, BookingState state, Long userId) {
-        // Получить номер страницы, с которой взять данные
-        int startPage = PageUtil.getStartPage(from, size);
-
-        if (PageUtil.isTwoSite(from, size)) {
-            // Получить данные с первой страницы
-            List<Booking> list = getListWithParamsByOwnerByState1Page(state, userId, startPage, size);
-            // Добавить данные со второй страницы
-            list.addAll(getListWithParamsByOwnerByState1Page(state, userId, startPage + 1, size));
-            // Отсечь лишние данные сверху удалением из листа до нужного id,
-            // а потом сделать отсечение через функцию limit
-            return PageUtil.getPageListForTwoPage(list,
-                    PageUtil.getStartFrom(from, size), size);
-        } else {
-            return (List) getListWithParamsByOwnerByState1Page(state, userId, startPage, size)
-                    .stream().limit(size)
-                    .collect(Collectors.toList());
-        }
-    }
-
-    private List getListWithParamsByOwnerByState1Page(
-            BookingState bookingState, Long userId, int startPage, int size) {
-        LocalDateTime now = LocalDateTime.now();
-
-        switch (bookingState) {
-            case ALL:
-                // Получить данные с первой страницы
-                List<Booking> list =
-                        bookingRepository
-                                .findByItemOwnerIdOrderByStartDesc(userId, PageRequest.of(startPage, size));
-                return list;
-            case CURRENT:
-                list = bookingRepository
-                        .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                                userId, now, now, PageRequest.of(startPage, size));
-                return list;
-            case PAST:
-                list = bookingRepository
-                        .findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                                userId, now, PageRequest.of(startPage, size));
-                return list;
-            case FUTURE:
-                list = bookingRepository
-                        .findByItemOwnerIdAndStartAfterOrderByStartDesc(
-                                userId, now, PageRequest.of(startPage, size));
-                return list;
-            case WAITING:
-                list = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.WAITING, PageRequest.of(startPage, size));
-                return list;
-            case REJECTED:
-                list = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.REJECTED, PageRequest.of(startPage, size));
-                return list;
-            default:
-                return null;
-        }
-    }
-
-    private List getListWithParamsByBookerByState1Page(
-            BookingState bookingState, Long userId, int startPage, int size) {
-        LocalDateTime now = LocalDateTime.now();
-
-        switch (bookingState) {
-            case ALL:
-                // Получить данные с первой страницы
-                List<Booking> list =
-                        bookingRepository
-                                .findByBookerIdOrderByStartDesc(userId,
-                                        PageRequest.of(startPage, size));
-                return list;
-            case CURRENT:
-                list = bookingRepository
-                        .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                                userId, now, now, PageRequest.of(startPage, size));
-                return list;
-            case PAST:
-                list = bookingRepository
-                        .findByBookerIdAndEndBeforeOrderByStartDesc(
-                                userId, now, PageRequest.of(startPage, size));
-                ;
-                return list;
-            case FUTURE:
-                list = bookingRepository
-                        .findByBookerIdAndStartAfterOrderByStartDesc(
-                                userId, now, PageRequest.of(startPage, size));
-                return list;
-            case WAITING:
-                list = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.WAITING, PageRequest.of(startPage, size));
-                return list;
-            case REJECTED:
-                list = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.REJECTED, PageRequest.of(startPage, size));
-                return list;
-            default:
-                return null;
+    private void validateFilter(BookingFilter filter) {
+        if (filter.getRangeStart() != null && filter.getRangeEnd() != null
+                && !filter.getRangeEnd().isAfter(filter.getRangeStart())) {
+            throw new ValidationException("Конец интервала дат должен быть позже начала");
         }
     }
 
     private User getUser(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException(
                         "Пользователь с id: " + userId + " не найден."));
     }
 
     private Item getItem(Long itemId) {
-        return itemRepository.findById(itemId).orElseThrow(
+        return itemRepository.findWithOwnerAndRequestById(itemId).orElseThrow(
                 () -> new NotFoundException("Вещь с id: " + itemId + " не найдена."));
     }
 
-    private void validateAvailable(Long itemId) {
-        if (!itemRepository.findById(itemId).get().getAvailable().booleanValue()) {
+    private Booking setBookingParams(Booking booking, User user, Item item) {
+        validateAvailable(item);
+
+        if (item.getOwner().getId().compareTo(user.getId()) == 0) {
+            throw new NotFoundException("Владелец не может забронировать свою же вещь: " +
+                    "userId: " + user.getId() + " itemId: " + item.getId());
+        }
+
+        booking.setItem(item);
+        booking.setBooker(user);
+        booking.setStatus(BookingStatus.WAITING);
+
+        return booking;
+    }
+
+    private void validateAvailable(Item item) {
+        if (!item.getAvailable().booleanValue()) {
             throw new NotAvailableItemException(
-                    "Вещь с id: " + itemId + " не доступна для бронирования.");
+                    "Вещь с id: " + item.getId() + " не доступна для бронирования.");
         }
     }
 
     private Booking getBookingFromRepo(Long bookingId) {
-        return bookingRepository.findById(bookingId).orElseThrow(() ->
+        return bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() ->
                 new NotFoundException("Бронирование с id: " + bookingId + " не найдено."));
     }
 }
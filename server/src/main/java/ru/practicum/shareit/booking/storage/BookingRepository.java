@@ -1,108 +1,66 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    // Бронирование для ответа: вещь (с владельцем и запросом) и автор бронирования одним запросом
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
     //Для проверки пользователя, что он брал в аренду вещь.
     List<Booking> findByBookerIdAndItemIdAndStatusAndStartBefore(
             Long userId, Long itemId, BookingStatus status, LocalDateTime current);
 
     /*
-        Списки бронирований, который делал пользователь.
+        Подтвержденные бронирования вещи, пересекающиеся с интервалом [start, end).
+        Условие item_id = ? and status = ? and end_date > ? использует индекс ix_bookings_item_status_end
      */
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
 
-    // Поиск всех бронирований пользователя (ALL)
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId);
-
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    // Поиск всех бронирований пользователя (CURRENT)
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime curStartTime, LocalDateTime curEndTime);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime curStartTime, LocalDateTime curEndTime,
-            Pageable pageable);
-
-    // Поиск всех бронирований пользователя (PAST)
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime currentTime);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
-            Long userId, LocalDateTime currentTime, Pageable pageable);
-
-    // Поиск всех бронирований пользователя (FUTURE)
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime currentTime);
+    // То же без учета самого проверяемого бронирования
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start, Long bookingId);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(
-            Long userId, LocalDateTime currentTime, Pageable pageable);
+    List<Booking> findByItemIdInAndStatusAndStartBeforeAndEndAfter(
+            Collection<Long> itemIds, BookingStatus status, LocalDateTime end, LocalDateTime start);
 
-
-    // Поиск всех бронирований пользователя по статусу
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(
-            Long userId, BookingStatus status, Pageable pageable);
+    // Занятые интервалы вещи в окне [start, end) для календаря доступности
+    List<Booking> findByItemIdAndStatusAndStartBeforeAndEndAfterOrderByStartAsc(
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
 
     /*
-        Списки бронирований вещей для владельцев вещей.
+        Последнее и следующее подтвержденное бронирование для каждой вещи из списка за один запрос.
+        Бронирования вещи делятся на начавшиеся и будущие, внутри каждой группы нумеруются
+        оконной функцией: последнее - по дате окончания по убыванию, следующее - по дате начала.
+        Возвращается не больше двух строк на вещь
      */
-
-    // ALL
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long userId);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    // CURRENT
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime curStartTime, LocalDateTime curEndTime);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long userId, LocalDateTime curStartTime, LocalDateTime curEndTime,
-            Pageable pageable);
-
-    // PAST
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime currentTime);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-            Long userId, LocalDateTime currentTime, Pageable pageable);
-
-    // FUTURE
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime currentTime);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(
-            Long userId, LocalDateTime currentTime, Pageable pageable);
-
-    // Status
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
-            Long userId, BookingStatus status, Pageable pageable);
-
-    // Запросы для поиска последнего бронирования
-    // Запрос для последнего бронирования,которое уже закончилось
-
-    List<Booking> findByItemIdAndItemOwnerIdAndStatusAndEndBeforeOrderByEndDesc(
-            Long itemId, Long userId, BookingStatus status, LocalDateTime currentTime);
-
-    List<Booking> findByItemIdAndItemOwnerIdAndStatusAndEndBeforeOrderByEndDesc(
-            Long itemId, Long userId, BookingStatus status, LocalDateTime currentTime,
-            Pageable pageable);
-
-    // Запрос для последнего бронирования,которое еще идет
-    List<Booking> findByItemIdAndItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByEndDesc(
-            Long itemId, Long userId, BookingStatus status,
-            LocalDateTime currentTimeStart, LocalDateTime currentTimeEnd);
-
-
-    // Запросы для следующего бронирования
-    List<Booking> findByItemIdAndItemOwnerIdAndStatusAndStartAfterOrderByStartAsc(
-            Long itemId, Long userId, BookingStatus status, LocalDateTime currentTime);
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status from (" +
+            " select b.*, row_number() over (" +
+            "  partition by b.item_id, case when b.start_date < :currentTime then 0 else 1 end" +
+            "  order by case when b.start_date < :currentTime then b.end_date end desc nulls last," +
+            "   b.start_date asc, b.id asc) as rn" +
+            " from bookings as b" +
+            " join items as it on it.id = b.item_id" +
+            " where b.item_id in (:itemIds)" +
+            "  and it.owner_id = :ownerId" +
+            "  and b.status = 'APPROVED'" +
+            "  and b.start_date <> :currentTime" +
+            ") as ranked where rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextApproved(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("ownerId") Long ownerId,
+                                          @Param("currentTime") LocalDateTime currentTime);
 
 }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingFilter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+    Списки бронирований строятся одним Criteria запросом по роли пользователя, состоянию
+    относительно currentTime и фильтру (вещь, интервал дат). Новое условие списка добавляется
+    в BookingFilter, а не отдельным методом репозитория
+ */
+public interface BookingRepositoryCustom {
+
+    // Бронирования в порядке (start_date desc, id desc) начиная с позиции from (from и size не заданы - все)
+    List<BookingView> findByState(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                                  LocalDateTime currentTime, Integer from, Integer size);
+
+    // Страница бронирований после позиции cursor в порядке (start_date desc, id desc).
+    // Если cursor = null, возвращается первая страница
+    List<BookingView> findByStateAfter(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                                       LocalDateTime currentTime, BookingCursor cursor, int limit);
+
+    // Количество бронирований списка с теми же условиями
+    long countByState(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                      LocalDateTime currentTime);
+
+    // Все бронирования в порядке (start_date desc, id desc) потоком: строки читаются из базы данных
+    // порциями по fetchSize. Поток нужно закрыть и читать внутри транзакции
+    Stream<Booking> streamByState(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                                  LocalDateTime currentTime, int fetchSize);
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.hibernate.jpa.QueryHints;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findByState(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                                         LocalDateTime currentTime, Integer from, Integer size) {
+        TypedQuery<BookingView> query = createViewQuery(role, userId, state, filter, currentTime, null);
+
+        if (from != null && size != null) {
+            query.setFirstResult(from).setMaxResults(size);
+        }
+
+        return query.getResultList();
+    }
+
+    @Override
+    public List<BookingView> findByStateAfter(BookingRole role, Long userId, BookingState state,
+                                              BookingFilter filter, LocalDateTime currentTime,
+                                              BookingCursor cursor, int limit) {
+        return createViewQuery(role, userId, state, filter, currentTime, cursor)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countByState(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                             LocalDateTime currentTime) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> booking = query.from(Booking.class);
+
+        query.select(cb.count(booking))
+                .where(getPredicates(cb, booking, booking.get("item").get("owner").get("id"),
+                        role, userId, state, filter, currentTime).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /*
+        Вещь с владельцем и запросом и автор бронирования загружаются в той же строке результата:
+        при чтении потоком пакетная загрузка связанных сущностей не работает и каждая из них
+        загружалась бы отдельным запросом. Контекст постоянства очищается после каждой порции,
+        чтобы прочитанные бронирования не накапливались в памяти
+     */
+    @Override
+    public Stream<Booking> streamByState(BookingRole role, Long userId, BookingState state, BookingFilter filter,
+                                         LocalDateTime currentTime, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Fetch<Booking, Item> item = booking.fetch("item");
+        item.fetch("owner");
+        item.fetch("request", JoinType.LEFT).fetch("requester", JoinType.LEFT);
+        booking.fetch("booker");
+
+        query.select(booking)
+                .where(getPredicates(cb, booking, booking.get("item").get("owner").get("id"),
+                        role, userId, state, filter, currentTime).toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+
+        AtomicLong count = new AtomicLong();
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(x -> {
+                    if (count.incrementAndGet() % fetchSize == 0) {
+                        entityManager.clear();
+                    }
+                });
+    }
+
+    /*
+        Бронирования в порядке (start_date desc, id desc) проекцией BookingView: вещь, ее владелец,
+        запрос вещи с автором и автор бронирования соединяются в том же запросе, выбираются только
+        поля ответа. Если cursor задан, возвращаются бронирования после позиции cursor
+     */
+    private TypedQuery<BookingView> createViewQuery(BookingRole role, Long userId, BookingState state,
+                                                    BookingFilter filter, LocalDateTime currentTime,
+                                                    BookingCursor cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Item, User> owner = item.join("owner");
+        Join<Item, ItemRequest> request = item.join("request", JoinType.LEFT);
+        Join<ItemRequest, User> requester = request.join("requester", JoinType.LEFT);
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = getPredicates(cb, booking, owner.get("id"),
+                role, userId, state, filter, currentTime);
+
+        // Условие поиска по ключу: (start, id) < (cursor.start, cursor.id)
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.select(cb.construct(BookingView.class,
+                        id, start, booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        owner.get("id"), owner.get("name"), owner.get("email"),
+                        request.get("id"), request.get("description"), request.get("created"),
+                        requester.get("id"), requester.get("name"), requester.get("email"),
+                        booker.get("id"), booker.get("name"), booker.get("email")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return entityManager.createQuery(query);
+    }
+
+    /*
+        Условия списка для всех методов. Значения передаются параметрами запроса
+        (hibernate.criteria.literal_handling_mode=bind): текст запроса зависит только от набора
+        условий, а не от id пользователя и времени, и план запроса берется из кэша.
+        Индексы: автор бронирования - ix_bookings_booker_*, вещь - ix_bookings_item_*,
+        владелец - ix_items_owner и затем ix_bookings_item_start
+     */
+    private List<Predicate> getPredicates(CriteriaBuilder cb, Root<Booking> booking, Path<Long> ownerId,
+                                          BookingRole role, Long userId, BookingState state,
+                                          BookingFilter filter, LocalDateTime currentTime) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (role == BookingRole.BOOKER) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userId));
+        } else {
+            predicates.add(cb.equal(ownerId, userId));
+        }
+
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, currentTime));
+                predicates.add(cb.greaterThan(end, currentTime));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, currentTime));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, currentTime));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+        }
+
+        if (filter.getItemId() != null) {
+            predicates.add(cb.equal(booking.get("item").get("id"), filter.getItemId()));
+        }
+        // Пересечение с интервалом [rangeStart, rangeEnd)
+        if (filter.getRangeStart() != null) {
+            predicates.add(cb.greaterThan(end, filter.getRangeStart()));
+        }
+        if (filter.getRangeEnd() != null) {
+            predicates.add(cb.lessThan(start, filter.getRangeEnd()));
+        }
+
+        return predicates;
+    }
+}
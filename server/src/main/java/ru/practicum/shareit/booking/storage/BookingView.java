@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/*
+    Бронирование для списков: только поля ответа одной строкой результата запроса
+    с соединением вещи, владельца, запроса вещи и автора бронирования.
+    Сущности не создаются и не попадают в контекст постоянства
+ */
+@Value
+public class BookingView {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    Long itemId;
+    String itemName;
+    String itemDescription;
+    Boolean itemAvailable;
+    Long ownerId;
+    String ownerName;
+    String ownerEmail;
+    Long requestId;
+    String requestDescription;
+    LocalDateTime requestCreated;
+    Long requesterId;
+    String requesterName;
+    String requesterEmail;
+    Long bookerId;
+    String bookerName;
+    String bookerEmail;
+}
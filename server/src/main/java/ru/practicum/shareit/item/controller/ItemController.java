@@ -2,15 +2,23 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemViewService;
+import ru.practicum.shareit.util.page.PagedList;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +31,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemController {
     private final ItemServiceImpl itemService;
+    private final ItemImportService itemImportService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final ItemViewService itemViewService;
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
 
     @GetMapping
@@ -37,13 +48,43 @@ public class ItemController {
                 .collect(Collectors.toList());
     }
 
+    /*
+        Список в обертке (envelope=true): признак следующей страницы hasNext
+        и, если total=true, общее количество вещей
+     */
+    @GetMapping(params = "envelope=true")
+    public PagedList<ItemDto> findPageByUserId(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                               @RequestParam(required = false) Integer from,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false, defaultValue = "false")
+                                               boolean total) {
+        log.info("Получен запрос на получение страницы списка вещей пользователя {}.",
+                userId);
+
+        return itemService.findPageByOwner(userId, from, size, total)
+                .map(item -> ItemMapper.toItemDto(item));
+    }
+
     @GetMapping("/{id}")
     public ItemDto get(@PathVariable Long id,
                        @RequestHeader(X_SHARER_USER_ID) Long userId) {
         log.info("Получен запрос от пользвателя {} на получение информации о вещи с id: {}.",
                 userId, id);
 
-        return ItemMapper.toItemDto(itemService.getInfo(id, userId));
+        return itemViewService.getItemDto(id, userId);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long id,
+                                               @RequestHeader(X_SHARER_USER_ID) Long userId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос от пользвателя {} на календарь доступности вещи с id: {} с {} по {}.",
+                userId, id, from, to);
+
+        return itemAvailabilityService.getAvailability(id, userId, from, to);
     }
 
     @GetMapping("/search")
@@ -59,6 +100,20 @@ public class ItemController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping(path = "/search", params = "envelope=true")
+    public PagedList<ItemDto> searchPage(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                         @RequestParam(required = false) String text,
+                                         @RequestParam(required = false) @PositiveOrZero Integer from,
+                                         @RequestParam(required = false) @Positive Integer size,
+                                         @RequestParam(required = false, defaultValue = "false")
+                                         boolean total) {
+        log.info("Получен запрос на получение страницы списка вещей пользователя {}" +
+                " по поиску: {}.", userId, text);
+
+        return itemService.searchItemsPage(userId, text, from, size, total)
+                .map(item -> ItemMapper.toItemDto(item));
+    }
+
     @PostMapping
     public ItemDto add(@RequestHeader(X_SHARER_USER_ID) Long userId,
                        @Valid @RequestBody CreateItemDto item) {
@@ -70,6 +125,27 @@ public class ItemController {
     }
 
 
+    @PostMapping("/batch")
+    public List<ItemDto> addAll(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                @RequestBody List<CreateItemDto> items) {
+        log.info("Получен запрос на сохранение {} новых вещей пользователя {} ", items.size(), userId);
+
+        return itemService.createAll(userId, items.stream()
+                        .map(item -> ItemMapper.toItemWithRequestId(item))
+                        .collect(Collectors.toList())).stream()
+                .map(item -> ItemMapper.toItemDto(item))
+                .collect(Collectors.toList());
+    }
+
+    @PostMapping(value = "/import",
+            consumes = {ItemImportService.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                           InputStream body) {
+        log.info("Получен запрос на импорт вещей пользователя {} ", userId);
+
+        return itemImportService.importItems(userId, body);
+    }
+
     @PostMapping("/{id}/comment")
     public CommentDto addComment(@PathVariable Long id,
                                  @RequestHeader(X_SHARER_USER_ID) Long userId,
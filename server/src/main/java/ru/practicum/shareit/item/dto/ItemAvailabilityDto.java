@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Календарь доступности вещи в окне [from, to): интервалы подтвержденных бронирований
+    и свободные интервалы между ними, обрезанные по границам окна
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Boolean available; // статус доступности вещи для аренды
+    @Builder.Default
+    private List<AvailabilityIntervalDto> busy = new ArrayList<>();
+    @Builder.Default
+    private List<AvailabilityIntervalDto> free = new ArrayList<>();
+}
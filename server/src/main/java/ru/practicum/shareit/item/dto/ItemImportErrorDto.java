@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportErrorDto {
+    private long record; // номер записи во входных данных, начиная с 1;
+    private long line; // номер строки, в которой начинается запись;
+    private String message; // причина, по которой запись не сохранена.
+}
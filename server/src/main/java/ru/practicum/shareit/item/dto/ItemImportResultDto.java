@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportResultDto {
+    private long imported; // количество сохраненных вещей;
+    private long failed; // количество записей с ошибками;
+    @Builder.Default
+    private List<ItemImportErrorDto> errors = new ArrayList<>(); // ошибки, не больше shareit.import.max-errors.
+}
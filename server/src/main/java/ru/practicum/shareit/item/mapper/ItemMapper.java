@@ -6,7 +6,10 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.dto.PatchItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemView;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.stream.Collectors;
 
@@ -58,6 +61,34 @@ public class ItemMapper {
                 .build();
     }
 
+    // Вещь со ссылкой на запрос, в которой заполнен только id запроса
+    public static Item toItemWithRequestId(CreateItemDto itemDto) {
+        Item item = toItem(itemDto);
+
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(ItemRequest.builder().id(itemDto.getRequestId()).build());
+        }
+
+        return item;
+    }
+
+    // Вещь из проекции: владелец заполнен полностью, у запроса - только id
+    public static Item toItem(ItemView itemView) {
+        return Item.builder()
+                .id(itemView.getId())
+                .name(itemView.getName())
+                .description(itemView.getDescription())
+                .available(itemView.getAvailable())
+                .owner(User.builder()
+                        .id(itemView.getOwnerId())
+                        .name(itemView.getOwnerName())
+                        .email(itemView.getOwnerEmail())
+                        .build())
+                .request(itemView.getRequestId() == null ? null
+                        : ItemRequest.builder().id(itemView.getRequestId()).build())
+                .build();
+    }
+
     public static Item toItem(PatchItemDto itemDto) {
         return Item.builder()
                 .name(itemDto.getName())
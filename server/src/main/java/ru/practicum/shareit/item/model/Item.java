@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.cache.HibernateCacheConfig;
 
 import javax.persistence.*;
 import java.util.List;
@@ -16,11 +19,27 @@ import java.util.List;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ITEM_REGION)
 @Table(name = "items")
+/*
+    Вещь с владельцем - для ответа о вещи (от запроса нужен только id),
+    вещь с владельцем и запросом (с автором) - для вещи внутри бронирования
+ */
+@NamedEntityGraph(name = Item.WITH_OWNER, attributeNodes = @NamedAttributeNode("owner"))
+@NamedEntityGraph(name = Item.WITH_OWNER_AND_REQUEST,
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode(value = "request", subgraph = "request")},
+        subgraphs = @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester")))
 public class Item {
+    public static final String WITH_OWNER = "Item.withOwner";
+    public static final String WITH_OWNER_AND_REQUEST = "Item.withOwnerAndRequest";
+
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;// уникальный идентификатор вещи;
     @Column(name = "name")
     private String name; // краткое название;
@@ -28,10 +47,10 @@ public class Item {
     private String description; // развёрнутое описание;
     @Column(name = "available")
     private Boolean available; // статус о том, доступна или нет вещь для аренды;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", referencedColumnName = "id")
     private User owner; // владелец вещи;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id", referencedColumnName = "id")
     private ItemRequest request; // если вещь была создана по запросу другого пользователя,
     // то в этом поле будет храниться ссылка на соответствующий запрос
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.util.exception.NotFoundException;
+import ru.practicum.shareit.util.exception.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+    // Ограничение окна, чтобы календарь не превращался в выгрузку всех бронирований вещи
+    private static final Duration MAX_WINDOW = Duration.ofDays(366);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final UserCache userCache;
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        userCache.findById(userId).orElseThrow(() -> new NotFoundException(
+                "Пользователь с id: " + userId + " не найден."));
+        Item item = itemRepository.findById(itemId).orElseThrow(
+                () -> new NotFoundException("Вещь с id: " + itemId + " не найдена."));
+
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plus(DEFAULT_WINDOW);
+        if (!end.isAfter(start)) {
+            throw new ValidationException("Конец периода должен быть позже начала");
+        }
+        if (Duration.between(start, end).compareTo(MAX_WINDOW) > 0) {
+            throw new ValidationException("Период не может быть больше " + MAX_WINDOW.toDays() + " дней");
+        }
+
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(start)
+                .to(end)
+                .available(item.getAvailable())
+                .build();
+
+        // Бронирования отсортированы по началу: свободный интервал - промежуток между
+        // концом уже занятой части окна и началом следующего бронирования
+        LocalDateTime freeFrom = start;
+        for (Booking booking : bookingRepository.findByItemIdAndStatusAndStartBeforeAndEndAfterOrderByStartAsc(
+                itemId, BookingStatus.APPROVED, end, start)) {
+            LocalDateTime busyStart = max(booking.getStart(), start);
+            LocalDateTime busyEnd = min(booking.getEnd(), end);
+
+            if (busyStart.isAfter(freeFrom)) {
+                availability.getFree().add(new AvailabilityIntervalDto(freeFrom, busyStart));
+            }
+            availability.getBusy().add(new AvailabilityIntervalDto(busyStart, busyEnd));
+            freeFrom = max(freeFrom, busyEnd);
+        }
+        if (end.isAfter(freeFrom)) {
+            availability.getFree().add(new AvailabilityIntervalDto(freeFrom, end));
+        }
+
+        return availability;
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
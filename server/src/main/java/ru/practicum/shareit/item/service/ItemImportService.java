@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.InputStream;
+
+public interface ItemImportService {
+    String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    // Импорт вещей владельца из потока JSON: записи CreateItemDto по одной на строку (NDJSON) или массив
+    ItemImportResultDto importItems(Long userId, InputStream input);
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.util.exception.NotFoundException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+    Импорт вещей из потока. Записи читаются по одной потоковым парсером Jackson,
+    проверяются ограничениями CreateItemDto и сохраняются пачками по shareit.import.batch-size: каждая пачка
+    сохраняется в своей транзакции через ItemService.createAll, поэтому в памяти
+    не бывает больше одной пачки. Ошибочные записи пропускаются и попадают в отчет
+ */
+@Service
+@Slf4j
+public class ItemImportServiceImpl implements ItemImportService {
+    private final ItemService itemService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserCache userCache;
+    private final Validator validator;
+    private final ObjectReader reader;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public ItemImportServiceImpl(ItemService itemService,
+                                 ItemRequestRepository itemRequestRepository,
+                                 UserCache userCache,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${shareit.import.batch-size:500}") int batchSize,
+                                 @Value("${shareit.import.max-errors:1000}") int maxErrors) {
+        this.itemService = itemService;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userCache = userCache;
+        this.validator = validator;
+        this.reader = objectMapper.readerFor(CreateItemDto.class);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Long userId, InputStream input) {
+        userCache.findById(userId).orElseThrow(() -> new NotFoundException(
+                "Пользователь с id: " + userId + " не найден."));
+
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<ImportRecord> batch = new ArrayList<>(batchSize);
+        long recordNumber = 0;
+
+        try (MappingIterator<CreateItemDto> records = reader.readValues(input)) {
+            while (true) {
+                long line = 0;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    recordNumber++;
+                    line = records.getParser().getTokenLocation().getLineNr();
+                    CreateItemDto dto = records.nextValue();
+                    Set<ConstraintViolation<CreateItemDto>> violations = validator.validate(dto);
+                    if (violations.isEmpty()) {
+                        batch.add(new ImportRecord(recordNumber, line, dto));
+                    } else {
+                        addError(result, recordNumber, line, toMessage(violations));
+                    }
+                } catch (JsonParseException e) {
+                    // Нарушена структура JSON: дальше поток прочитать нельзя
+                    addError(result, recordNumber, e.getLocation().getLineNr(), e.getOriginalMessage());
+                    break;
+                } catch (JsonProcessingException e) {
+                    // Запись не соответствует CreateItemDto: парсер переходит к следующей записи
+                    addError(result, recordNumber, line, e.getOriginalMessage());
+                }
+
+                if (batch.size() == batchSize) {
+                    saveBatch(userId, batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        saveBatch(userId, batch, result);
+
+        log.info("Импорт вещей пользователя {}: сохранено {}, с ошибками {}",
+                userId, result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void saveBatch(Long userId, List<ImportRecord> batch, ItemImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Записи со ссылкой на несуществующий запрос отбрасываются до сохранения,
+        // чтобы не откатывать из-за них всю пачку
+        Set<Long> requestIds = batch.stream()
+                .map(record -> record.getDto().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+
+        List<Item> items = new ArrayList<>(batch.size());
+        for (ImportRecord record : batch) {
+            Long requestId = record.getDto().getRequestId();
+            if (requestId != null && !existingRequestIds.contains(requestId)) {
+                addError(result, record.getNumber(), record.getLine(), "Не найден запрос с id:" + requestId);
+            } else {
+                items.add(ItemMapper.toItemWithRequestId(record.getDto()));
+            }
+        }
+
+        if (!items.isEmpty()) {
+            itemService.createAll(userId, items);
+            result.setImported(result.getImported() + items.size());
+        }
+    }
+
+    // Нарушения ограничений записи одной строкой, по имени поля: "name: must not be blank; ..."
+    private String toMessage(Set<ConstraintViolation<CreateItemDto>> violations) {
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .distinct()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void addError(ItemImportResultDto result, long record, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ItemImportErrorDto(record, line, message));
+        }
+    }
+
+    // Прочитанная запись вместе с ее положением во входных данных
+    @Getter
+    @AllArgsConstructor
+    private static class ImportRecord {
+        private final long number;
+        private final long line;
+        private final CreateItemDto dto;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.page.PagedList;
 
 import java.util.List;
 
@@ -10,14 +11,22 @@ public interface ItemService {
 
     List<Item> findAllByOwner(Long userId, Integer from, Integer size);
 
+    // Страница в обертке: признак следующей страницы и, если withTotal, общее количество вещей
+    PagedList<Item> findPageByOwner(Long userId, Integer from, Integer size, boolean withTotal);
+
     Item create(Long userId, Long requestId, Item item);
 
+    // Создание списка вещей одного владельца; в поле request вещи передается только id запроса
+    List<Item> createAll(Long userId, List<Item> items);
+
     Item update(Long itemId, Long userId, Long requestId, Item item);
 
     void delete(Long itemId, Long userId);
 
     List<Item> searchItems(Long userId, String text, Integer from, Integer size);
 
+    PagedList<Item> searchItemsPage(Long userId, String text, Integer from, Integer size, boolean withTotal);
+
     Comment addComment(Long itemId, Long userId, Comment comment);
 
 }
@@ -8,40 +8,57 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchEngine;
+import ru.practicum.shareit.item.storage.ItemView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 import ru.practicum.shareit.util.PageUtil;
 import ru.practicum.shareit.util.exception.NotFoundException;
 import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.page.PagedList;
+import ru.practicum.shareit.util.page.TotalCount;
+import ru.practicum.shareit.util.page.TotalCounter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    // Строки списка вещей владельца для оценки их количества планировщиком
+    private static final String OWNER_ITEMS_ROWS_SQL = "select 1 from items where owner_id = :ownerId";
 
     private final ItemRepository itemStorage;
+    private final ItemSearchEngine itemSearchEngine;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemDtoCache itemDtoCache;
+    private final TotalCounter totalCounter;
 
     @Override
     public Item getInfo(Long itemId, Long userId) {
         getUser(userId);
         // Просматривать информацию о вещи может любой пользователь
-        Optional<Item> itemOpt = itemStorage.findById(itemId);
+        Optional<Item> itemOpt = itemStorage.findWithOwnerById(itemId);
 
         if (!itemOpt.isPresent()) {
             throw new NotFoundException("Вещь с id: " + itemId +
@@ -49,14 +66,14 @@ public class ItemServiceImpl implements ItemService {
 
         }
 
-        return setComments(setBookingsInfo(itemOpt.get(), userId));
+        return setAddParamToItemList(List.of(itemOpt.get()), userId).get(0);
     }
 
     @Override
     public List<Item> findAllByOwner(Long userId, Integer from, Integer size) {
         getUser(userId);
         if (from == null && size == null) {
-            return setAddParamToItemList(itemStorage.findByOwnerIdOrderByIdAsc(userId), userId);
+            return setAddParamToItemList(toItems(itemStorage.findViewsByOwnerId(userId)), userId);
         } else if (from == null || size == null) {
             throw new ValidationException("Не хватает параметров для формирования списка");
         } else {
@@ -64,23 +81,35 @@ public class ItemServiceImpl implements ItemService {
                 // Получить номер страницы, с которой взять данные
                 int startPage = PageUtil.getStartPage(from, size);
                 // Получить данные с первой страницы
-                List<Item> list = itemStorage.findByOwnerIdOrderByIdAsc(userId, PageRequest.of(startPage, size));
+                List<ItemView> list = itemStorage.findViewsByOwnerId(userId, PageRequest.of(startPage, size));
                 // Получить данные со второй страницы
-                list.addAll(itemStorage.findByOwnerIdOrderByIdAsc(userId, PageRequest.of(startPage + 1, size)));
+                list.addAll(itemStorage.findViewsByOwnerId(userId, PageRequest.of(startPage + 1, size)));
                 // Отсечь лишние данные сверху удалением из листа до нужного id,
                 // а потом сделать отсечение через функцию limit
-                return setAddParamToItemList(
+                return setAddParamToItemList(toItems(
                         PageUtil.getPageListForTwoPage(
-                                list, PageUtil.getStartFrom(from, size), size), userId);
+                                list, PageUtil.getStartFrom(from, size), size)), userId);
             } else {
-                return setAddParamToItemList(itemStorage
-                        .findByOwnerIdOrderByIdAsc(userId, PageRequest.of(PageUtil.getStartPage(from, size), size))
+                return setAddParamToItemList(toItems(itemStorage
+                        .findViewsByOwnerId(userId, PageRequest.of(PageUtil.getStartPage(from, size), size))
                         .stream().limit(size)
-                        .collect(Collectors.toList()), userId);
+                        .collect(Collectors.toList())), userId);
             }
         }
     }
 
+    @Override
+    public PagedList<Item> findPageByOwner(Long userId, Integer from, Integer size, boolean withTotal) {
+        PagedList<Item> page = PagedList.of(findAllByOwner(userId, from, PagedList.getFetchSize(size)), size);
+
+        if (withTotal) {
+            page.withTotal(from == null ? 0 : from, () -> totalCounter.count(OWNER_ITEMS_ROWS_SQL,
+                    Map.of("ownerId", userId), () -> itemStorage.countByOwnerId(userId)));
+        }
+
+        return page;
+    }
+
     @Override
     @Transactional
     public Item create(Long userId, Long requestId, Item item) {
@@ -88,10 +117,42 @@ public class ItemServiceImpl implements ItemService {
         item.setRequest(getItemRequest(requestId));
 
         Item res = itemStorage.save(item);
+        itemSearchEngine.onSaved(res);
 
         return getInfo(res.getId(), res.getOwner().getId());
     }
 
+    @Override
+    @Transactional
+    public List<Item> createAll(Long userId, List<Item> items) {
+        User owner = getUser(userId);
+
+        // Все запросы, на которые ссылаются вещи, загружаются одним запросом
+        Set<Long> requestIds = items.stream()
+                .map(Item::getRequest)
+                .filter(Objects::nonNull)
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        for (Item item : items) {
+            item.setOwner(owner);
+            if (item.getRequest() != null) {
+                Long requestId = item.getRequest().getId();
+                item.setRequest(Optional.ofNullable(requests.get(requestId)).orElseThrow(() ->
+                        new NotFoundException("Не найден запрос с id:" + requestId)));
+            }
+            item.setComments(new ArrayList<>());
+        }
+
+        // Вставки отправляются пачками размера hibernate.jdbc.batch_size
+        List<Item> res = itemStorage.saveAll(items);
+        res.forEach(itemSearchEngine::onSaved);
+
+        return res;
+    }
+
     @Override
     @Transactional
     public Item update(Long itemId, Long userId, Long requestId, Item item) {
@@ -116,6 +177,8 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item res = itemStorage.save(oldItem);
+        itemSearchEngine.onSaved(res);
+        itemDtoCache.evict(itemId);
 
         return getInfo(res.getId(), res.getOwner().getId());
     }
@@ -125,6 +188,8 @@ public class ItemServiceImpl implements ItemService {
     public void delete(Long itemId, Long userId) {
         validateItemByUserAndById(itemId, userId);
         itemStorage.deleteById(itemId);
+        itemSearchEngine.onDeleted(itemId);
+        itemDtoCache.evict(itemId);
     }
 
     @Override
@@ -135,32 +200,28 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
         if (from == null && size == null) {
-            return setAddParamToItemList(itemStorage.search(text), userId);
+            return setAddParamToItemList(itemSearchEngine.search(text), userId);
         } else if (from == null || size == null) {
             throw new ValidationException("Не хватает параметров для формирования списка");
         } else {
-            // Если все нужные данные находятся на 2-х страницах
-            if (PageUtil.isTwoSite(from, size)) {
-                // Получить номер страницы, с которой взять данные
-                int startPage = PageUtil.getStartPage(from, size);
-                // Получить данные с первой страницы
-                List<Item> list = itemStorage.search(text, PageRequest.of(startPage, size));
-                // Получить данные со второй страницы
-                list.addAll(itemStorage.search(text, PageRequest.of(startPage + 1, size)));
-                // Отсечь лишние данные сверху удалением из листа до нужного id,
-                // а потом сделать отсечение через функцию limit
-                return setAddParamToItemList(
-                        PageUtil.getPageListForTwoPage(
-                                list, PageUtil.getStartFrom(from, size), size), userId);
-            } else {
-                return setAddParamToItemList(itemStorage
-                        .search(text, PageRequest.of(PageUtil.getStartPage(from, size), size))
-                        .stream().limit(size)
-                        .collect(Collectors.toList()), userId);
-            }
+            return setAddParamToItemList(itemSearchEngine.search(text, from, size), userId);
         }
     }
 
+    @Override
+    public PagedList<Item> searchItemsPage(Long userId, String text, Integer from, Integer size,
+                                           boolean withTotal) {
+        PagedList<Item> page = PagedList.of(searchItems(userId, text, from, PagedList.getFetchSize(size)), size);
+
+        if (withTotal) {
+            page.withTotal(from == null ? 0 : from, () -> text == null || text.isEmpty()
+                    ? new TotalCount(0, true)
+                    : itemSearchEngine.count(text));
+        }
+
+        return page;
+    }
+
     @Override
     @Transactional
     public Comment addComment(Long itemId, Long userId, Comment comment) {
@@ -180,7 +241,9 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
-        return commentRepository.save(comment);
+        Comment res = commentRepository.save(comment);
+        itemDtoCache.evict(itemId);
+        return res;
     }
 
     private void validateItemByUserAndById(Long itemId, Long userId) {
@@ -194,53 +257,53 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private Item setBookingsInfo(Item item, Long userId) {
-        // Поиск последнего бронирования (уже закончилось)
-        log.info("Текущее время {}", LocalDateTime.now());
-
-        List<Booking> findLastBooking = bookingRepository
-                .findByItemIdAndItemOwnerIdAndStatusAndEndBeforeOrderByEndDesc(
-                        item.getId(), userId, BookingStatus.APPROVED, LocalDateTime.now());
-
-        if (!findLastBooking.isEmpty()) {
-            item.setLastBooking(findLastBooking.get(0));
+    /*
+        Заполнение последнего и следующего бронирования и комментариев для списка вещей.
+        Данные загружаются двумя запросами на весь список, а не на каждую вещь.
+     */
+    private List<Item> setAddParamToItemList(List<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return items;
         }
 
-        // Поиск последнего бронирования (текущее)
-        List<Booking> findCurrentBooking = bookingRepository
-                .findByItemIdAndItemOwnerIdAndStatusAndStartBeforeAndEndAfterOrderByEndDesc(
-                        item.getId(), userId, BookingStatus.APPROVED,
-                        LocalDateTime.now(), LocalDateTime.now());
-
-        if (!findCurrentBooking.isEmpty()) {
-            item.setLastBooking(findCurrentBooking.get(0));
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+
+        // Последнее бронирование (текущее или закончившееся) и следующее - одним запросом,
+        // не больше двух бронирований на вещь
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextApproved(itemIds, userId, now)) {
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.put(booking.getItem().getId(), booking);
+            } else {
+                nextBookings.put(booking.getItem().getId(), booking);
+            }
         }
 
-        // Поиск следующего бронирования
-        List<Booking> findNextBooking = bookingRepository
-                .findByItemIdAndItemOwnerIdAndStatusAndStartAfterOrderByStartAsc(
-                        item.getId(), userId, BookingStatus.APPROVED, LocalDateTime.now());
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
 
-        if (!findNextBooking.isEmpty()) {
-            item.setNextBooking(findNextBooking.get(0));
+        for (Item item : items) {
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+            item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
         }
 
-        return item;
+        return items;
     }
 
-    private Item setComments(Item item) {
-        item.setComments(commentRepository.findByItemId(item.getId()));
-        return item;
-    }
-
-    private List<Item> setAddParamToItemList(List<Item> items, Long userId) {
-        return items.stream()
-                .map(x -> setComments(setBookingsInfo(x, userId)))
+    // Вещи списка читаются проекцией: запросы вещей и их авторы не загружаются
+    private List<Item> toItems(List<ItemView> itemViews) {
+        return itemViews.stream()
+                .map(ItemMapper::toItem)
                 .collect(Collectors.toList());
     }
 
     private User getUser(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException(
                         "Пользователь с id: " + userId + " не найден."));
     }
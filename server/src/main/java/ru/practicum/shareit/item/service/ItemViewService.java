@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+public interface ItemViewService {
+
+    // Информация о вещи для просмотра пользователем userId, собранная ItemService.getInfo или взятая из кэша
+    ItemDto getItemDto(Long itemId, Long userId);
+}
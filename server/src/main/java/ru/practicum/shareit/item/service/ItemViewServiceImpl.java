@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
+import ru.practicum.shareit.item.storage.ItemDtoCacheEntry;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.util.exception.NotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/*
+    Просмотр вещи через кэш ItemDtoCache. Запись кэша удаляется при изменении вещи, ее владельца,
+    создании и подтверждении бронирований и добавлении комментариев. Собранное значение сохраняется
+    с версией записи, прочитанной до обращения к базе данных: если запись за это время удалили,
+    значение могло быть собрано по старым данным и в кэш не попадает
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemViewServiceImpl implements ItemViewService {
+    private final ItemService itemService;
+    private final ItemDtoCache itemDtoCache;
+    private final UserCache userCache;
+
+    @Override
+    public ItemDto getItemDto(Long itemId, Long userId) {
+        userCache.findById(userId).orElseThrow(() -> new NotFoundException(
+                "Пользователь с id: " + userId + " не найден."));
+
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ItemDtoCacheEntry> cached = itemDtoCache.get(itemId);
+        if (cached.isPresent()) {
+            ItemDto view = getView(cached.get(), userId, now);
+            if (view != null) {
+                return view;
+            }
+        }
+
+        ItemDto itemDto = ItemMapper.toItemDto(itemService.getInfo(itemId, userId));
+        boolean owner = itemDto.getOwner().getId().equals(userId);
+
+        // Запись для другого представления той же вещи дополняется, а не заменяется
+        ItemDtoCacheEntry.ItemDtoCacheEntryBuilder entry = cached
+                .filter(x -> itemDto.getOwner().getId().equals(x.getOwnerId()))
+                .map(ItemDtoCacheEntry::toBuilder)
+                .orElseGet(ItemDtoCacheEntry::builder)
+                .ownerId(itemDto.getOwner().getId())
+                .version(cached.map(ItemDtoCacheEntry::getVersion).orElse(0L));
+        if (owner) {
+            entry.ownerView(itemDto)
+                    .ownerViewValidUntil(itemDto.getNextBooking() != null ? itemDto.getNextBooking().getStart() : null);
+        } else {
+            entry.guestView(itemDto);
+        }
+        itemDtoCache.put(itemId, entry.build());
+
+        return itemDto;
+    }
+
+    private ItemDto getView(ItemDtoCacheEntry entry, Long userId, LocalDateTime now) {
+        if (!userId.equals(entry.getOwnerId())) {
+            return entry.getGuestView();
+        }
+        if (entry.getOwnerViewValidUntil() != null && !now.isBefore(entry.getOwnerViewValidUntil())) {
+            return null;
+        }
+        return entry.getOwnerView();
+    }
+}
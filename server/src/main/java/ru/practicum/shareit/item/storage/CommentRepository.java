@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    public List<Comment> findByItemId(Long itemId);
+    // Автор нужен для ответа и загружается в том же запросе, от вещи нужен только id
+    @EntityGraph(Comment.WITH_AUTHOR)
+    public List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
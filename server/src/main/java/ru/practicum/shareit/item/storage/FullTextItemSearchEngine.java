@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.page.TotalCount;
+import ru.practicum.shareit.util.page.TotalCounter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+    Полнотекстовый поиск PostgreSQL по колонке items.search_vector (tsvector + GIN индекс).
+    Результаты упорядочены по релевантности. Каждое слово запроса ищется по префиксу
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext")
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    // Строки результата поиска для оценки их количества планировщиком
+    private static final String SEARCH_ROWS_SQL = "select 1 " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ to_tsquery('simple', :query)";
+
+    private final ItemRepository itemRepository;
+    private final TotalCounter totalCounter;
+
+    @Override
+    public List<Item> search(String text) {
+        String query = toTsQuery(text);
+
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return itemRepository.findWithOwnerByIdInOrder(itemRepository.fullTextSearch(query));
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        String query = toTsQuery(text);
+
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return itemRepository.findWithOwnerByIdInOrder(itemRepository.fullTextSearch(query, from, size));
+    }
+
+    @Override
+    public TotalCount count(String text) {
+        String query = toTsQuery(text);
+
+        if (query.isEmpty()) {
+            return new TotalCount(0, true);
+        }
+
+        return totalCounter.count(SEARCH_ROWS_SQL, Map.of("query", query),
+                () -> itemRepository.countFullTextSearch(query));
+    }
+
+    /*
+        Преобразование текста запроса в tsquery: "Дрель  аккум" -> "дрель:* & аккум:*".
+        Все символы, кроме букв и цифр, отбрасываются, поэтому спецсимволы tsquery
+        из пользовательского ввода не попадают в запрос
+     */
+    static String toTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
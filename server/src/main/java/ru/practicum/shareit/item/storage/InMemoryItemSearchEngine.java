@@ -0,0 +1,285 @@
+package ru.practicum.shareit.item.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionUtil;
+import ru.practicum.shareit.util.page.TotalCount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/*
+    Поиск по индексу триграмм в памяти приложения. Индекс содержит только доступные вещи,
+    строится из базы данных при старте и обновляется при создании, изменении и удалении вещей.
+    Поиск совпадает с like '%text%' без учета регистра: кандидаты выбираются по триграммам,
+    а затем проверяются вхождением подстроки. База данных используется только для загрузки
+    найденной страницы вещей
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@Slf4j
+public class InMemoryItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+    private static final int GRAM_SIZE = 3;
+
+    private final ItemRepository itemRepository;
+    private final Timer rebuildTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // id вещи -> название и описание в нижнем регистре
+    private Map<Long, IndexedText> documents = new HashMap<>();
+    // триграмма -> id вещей, в названии или описании которых она встречается
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    /*
+        Изменения, пришедшие во время перестроения индекса: id вещи -> новый текст или null,
+        если вещь удалена из индекса. Не null только пока идет перестроение
+     */
+    private Map<Long, IndexedText> pendingUpdates;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.rebuildTimer = Timer.builder("shareit.search.index.rebuild")
+                .description("Время построения индекса поиска вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.items", this, InMemoryItemSearchEngine::getItemCount)
+                .description("Количество вещей в индексе поиска")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, InMemoryItemSearchEngine::getGramCount)
+                .description("Количество триграмм в индексе поиска")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /*
+        Индекс строится заново из базы данных без блокировки поиска. Изменения вещей, закоммиченные
+        во время чтения, применяются к старому индексу и запоминаются, а после замены индекса
+        применяются к новому под той же блокировкой записи: снимок базы мог их не увидеть
+     */
+    public synchronized void rebuild() {
+        rebuildTimer.record(() -> {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                Map<Long, IndexedText> newDocuments = new HashMap<>();
+                Map<String, Set<Long>> newPostings = new HashMap<>();
+
+                for (ItemTextView item : itemRepository.findByAvailableTrue()) {
+                    IndexedText text = new IndexedText(item.getName(), item.getDescription());
+                    newDocuments.put(item.getId(), text);
+                    addPostings(newPostings, item.getId(), text);
+                }
+
+                lock.writeLock().lock();
+                try {
+                    documents = newDocuments;
+                    postings = newPostings;
+                    pendingUpdates.forEach(this::applyUpdate);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    pendingUpdates = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+
+        log.info("Индекс поиска вещей построен: {} вещей, {} триграмм", getItemCount(), getGramCount());
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        // Вещь могла быть удалена после поиска по индексу - такие id пропускаются
+        return itemRepository.findWithOwnerByIdInOrder(findIds(text));
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> ids = findIds(text);
+
+        if (from >= ids.size()) {
+            return new ArrayList<>();
+        }
+
+        return itemRepository.findWithOwnerByIdInOrder(ids.subList(from, Math.min(from + size, ids.size())));
+    }
+
+    // Количество считается по индексу, без обращения к базе данных
+    @Override
+    public TotalCount count(String text) {
+        return new TotalCount(findIds(text).size(), true);
+    }
+
+    @Override
+    public void onSaved(Item item) {
+        Long id = item.getId();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        IndexedText text = new IndexedText(item.getName(), item.getDescription());
+
+        TransactionUtil.afterCommit(() -> update(id, available ? text : null));
+    }
+
+    @Override
+    public void onDeleted(Long itemId) {
+        TransactionUtil.afterCommit(() -> update(itemId, null));
+    }
+
+    public int getItemCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getGramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // id найденных вещей по возрастанию
+    private List<Long> findIds(String text) {
+        String query = text.toLowerCase();
+
+        lock.readLock().lock();
+        try {
+            return getCandidates(query).stream()
+                    .filter(id -> documents.get(id).contains(query))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+        Кандидаты - вещи, содержащие все триграммы запроса.
+        Для запросов короче триграммы проверяются все вещи индекса
+     */
+    private Set<Long> getCandidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return documents.keySet();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : getGrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+
+        // Пересечение начинается с самого короткого списка
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(lists.get(i));
+        }
+
+        return candidates;
+    }
+
+    private void update(Long id, IndexedText text) {
+        lock.writeLock().lock();
+        try {
+            applyUpdate(id, text);
+            if (pendingUpdates != null) {
+                pendingUpdates.put(id, text);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Вызывается под блокировкой записи; text == null - вещь удаляется из индекса
+    private void applyUpdate(Long id, IndexedText text) {
+        removeFromIndex(id);
+        if (text != null) {
+            documents.put(id, text);
+            addPostings(postings, id, text);
+        }
+    }
+
+    private void removeFromIndex(Long id) {
+        IndexedText old = documents.remove(id);
+
+        if (old == null) {
+            return;
+        }
+
+        for (String gram : old.getGrams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void addPostings(Map<String, Set<Long>> postings, Long id, IndexedText text) {
+        for (String gram : text.getGrams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static Set<String> getGrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static class IndexedText {
+        private final String name;
+        private final String description;
+
+        IndexedText(String name, String description) {
+            this.name = name == null ? "" : name.toLowerCase();
+            this.description = description == null ? "" : description.toLowerCase();
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> getGrams() {
+            Set<String> grams = InMemoryItemSearchEngine.getGrams(name);
+            grams.addAll(InMemoryItemSearchEngine.getGrams(description));
+            return grams;
+        }
+    }
+}
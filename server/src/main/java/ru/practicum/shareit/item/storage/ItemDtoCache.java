@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.Optional;
+
+/*
+    Кэш собранных ItemDto для просмотра вещи. Реализация выбирается параметром
+    shareit.item-cache.type: memory (по умолчанию, в памяти экземпляра сервера),
+    remote (общий для всех экземпляров, Redis) или none
+ */
+public interface ItemDtoCache {
+
+    // После удаления возвращается запись без представлений, в которой есть только версия
+    Optional<ItemDtoCacheEntry> get(Long itemId);
+
+    /*
+        Запись сохраняется, только если версия в кэше не изменилась с чтения через get:
+        entry.version - версия прочитанной записи или 0, если записи не было
+     */
+    void put(Long itemId, ItemDtoCacheEntry entry);
+
+    /*
+        Вызывается при изменении вещи, ее бронирований или комментариев. Запись удаляется сразу
+        и повторно после завершения транзакции, чтобы не остаться со значением, прочитанным до коммита.
+        Каждое удаление меняет версию записи
+     */
+    void evict(Long itemId);
+}
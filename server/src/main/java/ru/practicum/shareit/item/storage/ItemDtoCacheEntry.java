@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.storage;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+/*
+    Запись кэша ItemDto одной вещи. Владелец видит последнее и следующее бронирование,
+    остальные пользователи - нет, поэтому для вещи хранятся два представления.
+    Представление владельца устаревает без изменения данных, когда начинается следующее
+    бронирование: до этого момента оно и действительно
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemDtoCacheEntry {
+    private Long ownerId;
+    private ItemDto ownerView;
+    private LocalDateTime ownerViewValidUntil;
+    private ItemDto guestView;
+    @JsonIgnore
+    private long version;
+}
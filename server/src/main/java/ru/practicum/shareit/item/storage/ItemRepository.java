@@ -1,14 +1,60 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    /*
+        Связанные сущности вещи загружаются лениво: методы, результат которых уходит в ответ,
+        загружают нужные связи в том же запросе по плану Item.WITH_OWNER или Item.WITH_OWNER_AND_REQUEST
+     */
+    @EntityGraph(Item.WITH_OWNER)
+    public Optional<Item> findWithOwnerById(Long id);
+
+    @EntityGraph(Item.WITH_OWNER)
+    public List<Item> findWithOwnerByIdIn(Collection<Long> ids);
+
+    // Вещь для бронирования: в ответе вещь отдается целиком вместе с запросом и его автором
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    public Optional<Item> findWithOwnerAndRequestById(Long id);
+
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    public List<Item> findWithOwnerAndRequestByIdIn(Collection<Long> ids);
+
+    // Вещи с владельцами в порядке списка ids (порядок результатов поиска). Удаленные вещи пропускаются
+    public default List<Item> findWithOwnerByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Item> items = findWithOwnerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @EntityGraph(Item.WITH_OWNER)
     @Query("select it " +
             "from Item as it " +
             "where (upper(it.name) like upper(concat('%',?1,'%')) " +
@@ -16,6 +62,7 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "and (it.available = true)")
     public List<Item> search(String search);
 
+    @EntityGraph(Item.WITH_OWNER)
     @Query("select it " +
             "from Item as it " +
             "where (upper(it.name) like upper(concat('%',?1,'%')) " +
@@ -23,12 +70,98 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "and (it.available = true)")
     public List<Item> search(String search, Pageable pageable);
 
+    // Количество найденных вещей для общего количества в ответе
+    @Query("select count(it) " +
+            "from Item as it " +
+            "where (upper(it.name) like upper(concat('%',?1,'%')) " +
+            "or upper(it.description) like upper(concat('%',?1,'%'))) " +
+            "and (it.available = true)")
+    public long countSearch(String search);
+
+    /*
+        Полнотекстовый поиск (только PostgreSQL), используется FullTextItemSearchEngine.
+        Возвращаются id в порядке релевантности: план загрузки к native запросу не применяется,
+        вещи с владельцами загружаются отдельно через findWithOwnerByIdInOrder
+     */
+    @Query(value = "select it.id " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ to_tsquery('simple', :query) " +
+            "order by ts_rank(it.search_vector, to_tsquery('simple', :query)) desc, it.id",
+            nativeQuery = true)
+    public List<Long> fullTextSearch(@Param("query") String query);
+
+    @Query(value = "select it.id " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ to_tsquery('simple', :query) " +
+            "order by ts_rank(it.search_vector, to_tsquery('simple', :query)) desc, it.id " +
+            "limit :size offset :from",
+            nativeQuery = true)
+    public List<Long> fullTextSearch(@Param("query") String query,
+                                     @Param("from") int from, @Param("size") int size);
+
+    @Query(value = "select count(*) " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    public long countFullTextSearch(@Param("query") String query);
+
+    public List<ItemTextView> findByAvailableTrue();
+
     public List<Item> findByOwnerIdOrderByIdAsc(Long userId);
 
-    public List<Item> findByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
+    public long countByOwnerId(Long ownerId);
+
+    /*
+        Вещи владельца для списка проекцией ItemView одним запросом.
+        Список без пагинации - в кэше запросов, сбрасывается при любом изменении таблиц items, users и requests
+     */
+    @Query("select new ru.practicum.shareit.item.storage.ItemView(" +
+            "it.id, it.name, it.description, it.available, ow.id, ow.name, ow.email, rq.id) " +
+            "from Item as it " +
+            "join it.owner as ow " +
+            "left join it.request as rq " +
+            "where ow.id = :ownerId " +
+            "order by it.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    public List<ItemView> findViewsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select new ru.practicum.shareit.item.storage.ItemView(" +
+            "it.id, it.name, it.description, it.available, ow.id, ow.name, ow.email, rq.id) " +
+            "from Item as it " +
+            "join it.owner as ow " +
+            "left join it.request as rq " +
+            "where ow.id = :ownerId " +
+            "order by it.id")
+    public List<ItemView> findViewsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
     public List<Item> findByIdAndOwnerIdOrderByIdAsc(Long itemId, Long userId);
 
-    public List<Item> findByRequestId(Long requestId);
+    /*
+        Вещь с блокировкой строки до конца транзакции (select ... for update): подтверждения
+        бронирований одной вещи выполняются по очереди, в том числе на разных экземплярах сервера
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item as it where it.id = :id")
+    public Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    // Вещи сразу для списка запросов вместе с владельцами проекцией ItemView
+    @Query("select new ru.practicum.shareit.item.storage.ItemView(" +
+            "it.id, it.name, it.description, it.available, ow.id, ow.name, ow.email, rq.id) " +
+            "from Item as it " +
+            "join it.owner as ow " +
+            "join it.request as rq " +
+            "where rq.id in :requestIds " +
+            "order by it.id")
+    public List<ItemView> findViewsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    // Вещи, в ItemDto которых входят данные пользователя: как владельца или как автора комментария
+    @Query("select it.id " +
+            "from Item as it " +
+            "where it.owner.id = :userId " +
+            "or it.id in (select c.item.id from Comment as c where c.author.id = :userId)")
+    public List<Long> findIdsByOwnerIdOrCommentAuthorId(@Param("userId") Long userId);
 
 }
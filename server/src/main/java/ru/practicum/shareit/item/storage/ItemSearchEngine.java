@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.page.TotalCount;
+
+import java.util.List;
+
+/*
+    Поиск доступных для аренды вещей по тексту в названии или описании.
+    Реализация выбирается параметром shareit.search.engine
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text);
+
+    List<Item> search(String text, int from, int size);
+
+    // Количество найденных вещей: точное или оценка для большого результата поиска
+    TotalCount count(String text);
+
+    // Уведомления об изменении вещей для реализаций, которые хранят собственный индекс
+    default void onSaved(Item item) {
+    }
+
+    default void onDeleted(Long itemId) {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.storage;
+
+/*
+    Текстовые поля вещи для построения поискового индекса
+ */
+public interface ItemTextView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
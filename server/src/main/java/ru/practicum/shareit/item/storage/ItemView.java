@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.Value;
+
+/*
+    Вещь для списков: поля ответа и владелец одной строкой результата запроса.
+    От запроса вещи нужен только id, сам запрос и его автор не загружаются
+ */
+@Value
+public class ItemView {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    String ownerName;
+    String ownerEmail;
+    Long requestId;
+}
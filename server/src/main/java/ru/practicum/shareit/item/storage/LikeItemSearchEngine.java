@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.PageUtil;
+import ru.practicum.shareit.util.page.TotalCount;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+    Поиск через like по названию и описанию. Работает на любой базе данных (в том числе H2),
+    используется по умолчанию
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text) {
+        return itemRepository.search(text);
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        // Получить номер страницы, с которой взять данные
+        int startPage = PageUtil.getStartPage(from, size);
+
+        // Если все нужные данные находятся на 2-х страницах
+        if (PageUtil.isTwoSite(from, size)) {
+            // Получить данные с первой страницы
+            List<Item> list = itemRepository.search(text, PageRequest.of(startPage, size));
+            // Получить данные со второй страницы
+            list.addAll(itemRepository.search(text, PageRequest.of(startPage + 1, size)));
+            // Отсечь лишние данные сверху удалением из листа до нужного id,
+            // а потом сделать отсечение через функцию limit
+            return PageUtil.getPageListForTwoPage(
+                    list, PageUtil.getStartFrom(from, size), size);
+        } else {
+            return itemRepository.search(text, PageRequest.of(startPage, size))
+                    .stream().limit(size)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Оценка планировщика для like '%text%' неточна, количество всегда считается точно
+    @Override
+    public TotalCount count(String text) {
+        return new TotalCount(itemRepository.countSearch(text), true);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Кэш в памяти экземпляра сервера. Подходит для одного экземпляра: изменения,
+    сделанные через другой экземпляр, будут видны только после истечения записи
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.type", havingValue = "memory", matchIfMissing = true)
+public class MemoryItemDtoCache implements ItemDtoCache {
+    private final Cache<Long, ItemDtoCacheEntry> cache;
+    private final AtomicLong versions = new AtomicLong();
+
+    public MemoryItemDtoCache(MeterRegistry meterRegistry,
+                              @Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${shareit.item-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    @Override
+    public Optional<ItemDtoCacheEntry> get(Long itemId) {
+        return Optional.ofNullable(cache.getIfPresent(itemId));
+    }
+
+    // Сравнение версии и замена атомарны. Чтение через asMap не учитывается в статистике кэша
+    @Override
+    public void put(Long itemId, ItemDtoCacheEntry entry) {
+        ItemDtoCacheEntry current = cache.asMap().get(itemId);
+        if (current == null) {
+            if (entry.getVersion() == 0) {
+                cache.asMap().putIfAbsent(itemId, entry);
+            }
+        } else if (current.getVersion() == entry.getVersion()) {
+            cache.asMap().replace(itemId, current, entry);
+        }
+    }
+
+    @Override
+    public void evict(Long itemId) {
+        cache.put(itemId, getRemoved());
+        TransactionUtil.afterCommit(() -> cache.put(itemId, getRemoved()));
+    }
+
+    private ItemDtoCacheEntry getRemoved() {
+        return ItemDtoCacheEntry.builder()
+                .version(versions.incrementAndGet())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Кэш выключен: каждый просмотр вещи собирается из базы данных
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.type", havingValue = "none")
+public class NoItemDtoCache implements ItemDtoCache {
+
+    @Override
+    public Optional<ItemDtoCacheEntry> get(Long itemId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(Long itemId, ItemDtoCacheEntry entry) {
+    }
+
+    @Override
+    public void evict(Long itemId) {
+    }
+}
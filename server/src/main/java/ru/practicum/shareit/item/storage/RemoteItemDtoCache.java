@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.TransactionUtil;
+import ru.practicum.shareit.util.cache.RemoteCacheClient;
+import ru.practicum.shareit.util.cache.VersionedValue;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Кэш во внешнем хранилище, общий для всех экземпляров сервера. Записи хранятся в JSON
+    под ключом shareit:item:{id} и удаляются хранилищем по истечении времени жизни
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.type", havingValue = "remote")
+@Slf4j
+public class RemoteItemDtoCache implements ItemDtoCache {
+    private static final String KEY_PREFIX = "shareit:item:";
+
+    private final RemoteCacheClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration expireAfterWrite;
+    private final Counter hits;
+    private final Counter misses;
+
+    public RemoteItemDtoCache(RemoteCacheClient client,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.item-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.expireAfterWrite = expireAfterWrite;
+        // Те же метрики, что и у кэшей Caffeine
+        this.hits = meterRegistry.counter("cache.gets", "cache", "items", "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", "items", "result", "miss");
+    }
+
+    @Override
+    public Optional<ItemDtoCacheEntry> get(Long itemId) {
+        VersionedValue value = client.get(getKey(itemId));
+        Optional<ItemDtoCacheEntry> entry = Optional.ofNullable(value.getValue()).flatMap(this::read);
+        (entry.isPresent() ? hits : misses).increment();
+        if (entry.isEmpty() && value.getVersion() == 0) {
+            return Optional.empty();
+        }
+        // Без значения возвращается только версия: с ней put сохранит значение, собранное после удаления
+        ItemDtoCacheEntry res = entry.orElseGet(ItemDtoCacheEntry::new);
+        res.setVersion(value.getVersion());
+        return Optional.of(res);
+    }
+
+    @Override
+    public void put(Long itemId, ItemDtoCacheEntry entry) {
+        try {
+            client.set(getKey(itemId), objectMapper.writeValueAsString(entry), entry.getVersion(), expireAfterWrite);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сохранить в кэш вещь {}: {}", itemId, e.getMessage());
+        }
+    }
+
+    // Версия хранится столько же, сколько значение, которое она защищает
+    @Override
+    public void evict(Long itemId) {
+        client.delete(getKey(itemId), expireAfterWrite);
+        TransactionUtil.afterCommit(() -> client.delete(getKey(itemId), expireAfterWrite));
+    }
+
+    // Запись, которую не удалось прочитать (например, после изменения формата), считается промахом
+    private Optional<ItemDtoCacheEntry> read(String value) {
+        try {
+            return Optional.of(objectMapper.readValue(value, ItemDtoCacheEntry.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось прочитать запись кэша вещи: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String getKey(Long itemId) {
+        return KEY_PREFIX + itemId;
+    }
+}
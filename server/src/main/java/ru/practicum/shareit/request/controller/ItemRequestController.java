@@ -7,6 +7,7 @@ import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.page.PagedList;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -58,4 +59,17 @@ public class ItemRequestController {
                 .map(x -> RequestMapper.toItemRequestDto(x))
                 .collect(Collectors.toList());
     }
+
+    // Список в обертке (envelope=true): hasNext и, если total=true, общее количество запросов
+    @GetMapping(path = "/all", params = "envelope=true")
+    public PagedList<ItemRequestDto> findPage(@RequestHeader(X_SHARER_USER_ID) Long userId,
+                                              @RequestParam(required = false) Integer from,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false, defaultValue = "false")
+                                              boolean total) {
+        log.info("Получен запрос на получения страницы списка запросов на вещи от пользователя {} ", userId);
+
+        return itemRequestService.findPageByOffset(userId, from, size, total)
+                .map(x -> RequestMapper.toItemRequestDto(x));
+    }
 }
@@ -4,6 +4,8 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestView;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.stream.Collectors;
 
@@ -14,6 +16,20 @@ public class RequestMapper {
                 .build();
     }
 
+    // Запрос из проекции, вещи заполняются отдельно
+    public static ItemRequest toItemRequest(ItemRequestView itemRequestView) {
+        return ItemRequest.builder()
+                .id(itemRequestView.getId())
+                .description(itemRequestView.getDescription())
+                .created(itemRequestView.getCreated())
+                .requester(User.builder()
+                        .id(itemRequestView.getRequesterId())
+                        .name(itemRequestView.getRequesterName())
+                        .email(itemRequestView.getRequesterEmail())
+                        .build())
+                .build();
+    }
+
     public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
         return ItemRequestDto.builder()
                 .id(itemRequest.getId())
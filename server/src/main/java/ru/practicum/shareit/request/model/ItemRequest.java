@@ -4,8 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.cache.HibernateCacheConfig;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -20,19 +23,25 @@ import java.util.List;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.REQUEST_REGION)
 @Table(name = "requests")
+// Запрос с автором - для ответа
+@NamedEntityGraph(name = ItemRequest.WITH_REQUESTER, attributeNodes = @NamedAttributeNode("requester"))
 public class ItemRequest {
+    public static final String WITH_REQUESTER = "ItemRequest.withRequester";
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id; // уникальный идентификатор запроса;
 
     @Column(name = "description")
     @NotNull
     private String description; // текст запроса, содержащий описание требуемой вещи;
 
-    @ManyToOne()
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     @NotNull
     private User requester; // пользователь, создавший запрос;
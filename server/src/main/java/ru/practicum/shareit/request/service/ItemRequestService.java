@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.page.PagedList;
 
 import java.util.List;
 
@@ -12,4 +13,7 @@ public interface ItemRequestService {
     List<ItemRequest> findAllByRequesterId(Long userId);
 
     List<ItemRequest> findAllByOffset(Long userId, Integer from, Integer size);
+
+    // Страница в обертке: признак следующей страницы и, если withTotal, общее количество запросов
+    PagedList<ItemRequest> findPageByOffset(Long userId, Integer from, Integer size, boolean withTotal);
 }
@@ -5,34 +5,50 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.request.storage.ItemRequestView;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 import ru.practicum.shareit.util.PageUtil;
 import ru.practicum.shareit.util.exception.NotFoundException;
 import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.page.PagedList;
+import ru.practicum.shareit.util.page.TotalCounter;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
+    // Строки списка запросов других пользователей для оценки их количества планировщиком
+    private static final String OTHER_REQUESTS_ROWS_SQL = "select 1 from requests where user_id <> :userId";
 
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TotalCounter totalCounter;
 
     @Override
     @Transactional
     public ItemRequest create(ItemRequest itemRequest, Long userId) {
         User user = getUser(userId);
         itemRequest.setRequester(user);
-        itemRequest.setCreated(LocalDateTime.now());
+        /*
+            Точность времени - как у столбца базы данных (микросекунды): запрос попадает в кэш
+            второго уровня при сохранении и должен совпадать с прочитанным из базы данных
+         */
+        itemRequest.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         return setItems(itemRequestRepository.save(itemRequest));
     }
 
@@ -46,8 +62,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequest> findAllByRequesterId(Long userId) {
-        getUser(userId);
-        return setItems(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId));
+        User user = getUser(userId);
+        List<ItemRequest> itemRequests = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId);
+        itemRequests.forEach(itemRequest -> itemRequest.setRequester(user));
+        return setItems(itemRequests);
     }
 
     @Override
@@ -55,7 +73,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         getUser(userId);
 
         if (from == null && size == null) {
-            return setItems(itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(userId));
+            return setItems(toItemRequests(itemRequestRepository.findViewsByRequesterIdNot(userId)));
         } else if (from == null || size == null) {
             throw new ValidationException("Не хватает параметров для формирования списка");
         } else {
@@ -63,46 +81,80 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 // Получить номер страницы, с которой взять данные
                 int startPage = PageUtil.getStartPage(from, size);
                 // Получить данные с первой страницы
-                List<ItemRequest> list = itemRequestRepository
-                        .findByRequesterIdNotOrderByCreatedDesc(userId, PageRequest.of(startPage, size));
+                List<ItemRequestView> list = itemRequestRepository
+                        .findViewsByRequesterIdNot(userId, PageRequest.of(startPage, size));
                 // Получить данные со второй страницы
                 list.addAll(itemRequestRepository
-                        .findByRequesterIdNotOrderByCreatedDesc(userId, PageRequest.of(startPage + 1, size)));
+                        .findViewsByRequesterIdNot(userId, PageRequest.of(startPage + 1, size)));
                 // Отсечь лишние данные сверху удалением из листа до нужного id,
                 // а потом сделать отсечение через функцию limit
-                return setItems(
+                return setItems(toItemRequests(
                         PageUtil.getPageListForTwoPage(
-                                list, PageUtil.getStartFrom(from, size), size));
+                                list, PageUtil.getStartFrom(from, size), size)));
             } else {
-                return setItems(itemRequestRepository
-                        .findByRequesterIdNotOrderByCreatedDesc(
-                                userId, PageRequest.of(PageUtil.getStartPage(from, size), size)))
+                return setItems(toItemRequests(itemRequestRepository
+                        .findViewsByRequesterIdNot(
+                                userId, PageRequest.of(PageUtil.getStartPage(from, size), size))))
                         .stream().limit(size)
                         .collect(Collectors.toList());
             }
         }
     }
 
+    @Override
+    public PagedList<ItemRequest> findPageByOffset(Long userId, Integer from, Integer size, boolean withTotal) {
+        PagedList<ItemRequest> page = PagedList.of(findAllByOffset(userId, from, PagedList.getFetchSize(size)), size);
+
+        if (withTotal) {
+            page.withTotal(from == null ? 0 : from, () -> totalCounter.count(OTHER_REQUESTS_ROWS_SQL,
+                    Map.of("userId", userId), () -> itemRequestRepository.countByRequesterIdNot(userId)));
+        }
+
+        return page;
+    }
+
     private ItemRequest setItems(ItemRequest itemRequest) {
-        itemRequest.setItems(
-                itemRepository.findByRequestId(itemRequest.getId()));
-        return itemRequest;
+        return setItems(List.of(itemRequest)).get(0);
     }
 
+    /*
+        Вещи загружаются одним запросом на весь список запросов и группируются по запросу
+     */
     private List<ItemRequest> setItems(List<ItemRequest> itemRequests) {
-        return itemRequests.stream()
-                .map(this::setItems)
+        if (itemRequests.isEmpty()) {
+            return itemRequests;
+        }
+
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<Item>> items = itemRepository.findViewsByRequestIdIn(requestIds).stream()
+                .map(ItemMapper::toItem)
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        for (ItemRequest itemRequest : itemRequests) {
+            itemRequest.setItems(items.getOrDefault(itemRequest.getId(), new ArrayList<>()));
+        }
+
+        return itemRequests;
+    }
+
+    // Запросы списка читаются проекцией вместе с авторами
+    private List<ItemRequest> toItemRequests(List<ItemRequestView> itemRequestViews) {
+        return itemRequestViews.stream()
+                .map(RequestMapper::toItemRequest)
                 .collect(Collectors.toList());
     }
 
     private User getUser(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException(
                         "Пользователь с id: " + userId + " не найден."));
     }
 
     private ItemRequest getItemRequestFromRepo(Long requestId) {
-        return itemRequestRepository.findById(requestId).orElseThrow(
+        return itemRequestRepository.findWithRequesterById(requestId).orElseThrow(
                 () -> new NotFoundException(
                         "Не найден запрос на вещь с id: " + requestId));
     }
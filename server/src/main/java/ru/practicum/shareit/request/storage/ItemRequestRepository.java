@@ -1,17 +1,48 @@
 package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    // Запрос для ответа вместе с автором
+    @EntityGraph(ItemRequest.WITH_REQUESTER)
+    Optional<ItemRequest> findWithRequesterById(Long id);
+
+    /*
+        Собственные запросы пользователя - в кэше запросов, сбрасывается при изменении таблицы requests.
+        Автор не загружается: при чтении из кэша запросов план загрузки не применяется,
+        автор всех запросов - сам пользователь, он подставляется в сервисе
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long userId);
 
-    List<ItemRequest> findByRequesterIdNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    // Запросы других пользователей для списка проекцией ItemRequestView вместе с автором
+    @Query("select new ru.practicum.shareit.request.storage.ItemRequestView(" +
+            "rq.id, rq.description, rq.created, us.id, us.name, us.email) " +
+            "from ItemRequest as rq " +
+            "join rq.requester as us " +
+            "where us.id <> :userId " +
+            "order by rq.created desc")
+    List<ItemRequestView> findViewsByRequesterIdNot(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.request.storage.ItemRequestView(" +
+            "rq.id, rq.description, rq.created, us.id, us.name, us.email) " +
+            "from ItemRequest as rq " +
+            "join rq.requester as us " +
+            "where us.id <> :userId " +
+            "order by rq.created desc")
+    List<ItemRequestView> findViewsByRequesterIdNot(@Param("userId") Long userId);
 
-    List<ItemRequest> findByRequesterIdNotOrderByCreatedDesc(Long userId);
+    long countByRequesterIdNot(Long userId);
 
 }
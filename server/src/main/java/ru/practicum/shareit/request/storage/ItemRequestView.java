@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.storage;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/*
+    Запрос вещи для списков: поля ответа и автор запроса одной строкой результата запроса
+ */
+@Value
+public class ItemRequestView {
+    Long id;
+    String description;
+    LocalDateTime created;
+    Long requesterId;
+    String requesterName;
+    String requesterEmail;
+}
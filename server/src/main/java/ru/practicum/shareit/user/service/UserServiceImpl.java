@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 import ru.practicum.shareit.util.exception.NotFoundException;
 
@@ -15,6 +18,9 @@ import java.util.List;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userStorage;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemDtoCache itemDtoCache;
 
     @Override
     public User get(Long id) {
@@ -47,14 +53,25 @@ public class UserServiceImpl implements UserService {
             newUser.setEmail(userPatch.getEmail());
         }
 
-        return userStorage.save(newUser);
+        User res = userStorage.save(newUser);
+        userCache.evict(userId);
+        evictItemDtos(userId);
+
+        return res;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         User user = get(id);
+        evictItemDtos(id);
         userStorage.deleteById(id);
+        userCache.evict(id);
+    }
+
+    // Имя и почта пользователя входят в кэшированные ItemDto его вещей и вещей с его комментариями
+    private void evictItemDtos(Long userId) {
+        itemRepository.findIdsByOwnerIdOrCommentAuthorId(userId).forEach(itemDtoCache::evict);
     }
 
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Кэш пользователей для проверки существования пользователя в сервисах.
+    Размер и время жизни записей ограничены, отсутствующие пользователи не кэшируются.
+    При изменении и удалении пользователя запись удаляется сразу и повторно после
+    завершения транзакции, чтобы не вернуть значение, прочитанное до коммита
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, User> cache;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    /*
+        Загрузка выполняется атомарно для ключа, поэтому удаление записи во время
+        загрузки дождется ее окончания и удалит загруженное значение
+     */
+    public Optional<User> findById(Long userId) {
+        User user = cache.get(userId, id -> userRepository.findById(id).orElse(null));
+
+        // Возвращается копия, чтобы изменения объекта не попадали в кэш
+        return Optional.ofNullable(user).map(this::copy);
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        TransactionUtil.afterCommit(() -> cache.invalidate(userId));
+    }
+
+    private User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.util.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/*
+    Кэш второго уровня Hibernate (JCache, реализация Caffeine) для пользователей, вещей и запросов.
+    Регионы создаются заранее с ограничением размера и времени жизни записей, регион меток
+    обновления таблиц для кэша запросов не ограничивается: вытеснение метки раньше результата
+    запроса вернуло бы устаревший результат. Hibernate сам удаляет записи при изменении
+    и удалении сущностей, статистика регионов доступна в /actuator/prometheus
+    (hibernate_second_level_cache_*)
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String USER_REGION = "user";
+    public static final String ITEM_REGION = "item";
+    public static final String REQUEST_REGION = "request";
+
+    private final long entityMaximumSize;
+    private final Duration entityExpireAfterWrite;
+    private final long queryMaximumSize;
+    private final Duration queryExpireAfterWrite;
+
+    public HibernateCacheConfig(
+            @Value("${shareit.entity-cache.maximum-size:10000}") long entityMaximumSize,
+            @Value("${shareit.entity-cache.expire-after-write:30m}") Duration entityExpireAfterWrite,
+            @Value("${shareit.entity-cache.query-maximum-size:1000}") long queryMaximumSize,
+            @Value("${shareit.entity-cache.query-expire-after-write:5m}") Duration queryExpireAfterWrite) {
+        this.entityMaximumSize = entityMaximumSize;
+        this.entityExpireAfterWrite = entityExpireAfterWrite;
+        this.queryMaximumSize = queryMaximumSize;
+        this.queryExpireAfterWrite = queryExpireAfterWrite;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, createCacheManager());
+            // Регион, не созданный заранее, - ошибка конфигурации, а не кэш без ограничений
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Статистика нужна для метрик регионов. Вместе с ней Hibernate включает вывод метрик
+            // каждой сессии в лог (StatisticalLoggingSessionEventListener) - он отключается
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    /*
+        Отдельный менеджер кэшей на каждую фабрику сессий: контексты в тестах не делят регионы
+        между собой. Hibernate закрывает менеджер при закрытии фабрики сессий
+     */
+    private CacheManager createCacheManager() {
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create("shareit-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : new String[]{USER_REGION, ITEM_REGION, REQUEST_REGION}) {
+            cacheManager.createCache(region, getConfiguration(entityMaximumSize, entityExpireAfterWrite));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                getConfiguration(queryMaximumSize, queryExpireAfterWrite));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    private CaffeineConfiguration<Object, Object> getConfiguration(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.util.cache;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    Клиент Redis на Lettuce. Одно потокобезопасное соединение открывается при первом обращении,
+    поэтому сервер запускается и без доступного Redis. Неудачная попытка подключения повторяется
+    не раньше чем через shareit.item-cache.redis.retry-interval, открытое соединение Lettuce
+    восстанавливает сам, а команды без соединения сразу завершаются ошибкой. Время ожидания ответа
+    небольшое: медленный кэш хуже, чем его отсутствие.
+    Версия ключа хранится в ключе {key}:version, запись и удаление с проверкой и изменением версии
+    выполняются скриптами Lua, то есть атомарно.
+    Удаление, не выполненное из-за ошибки, запоминается и повторяется перед следующей командой.
+    Пока оно не выполнено, кэш не читается и не пишется: иначе после восстановления Redis
+    вернул бы устаревшее значение. Удаление перестает быть нужным, когда истекает время жизни значения
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.type", havingValue = "remote")
+@Slf4j
+public class RedisRemoteCacheClient implements RemoteCacheClient, DisposableBean {
+    private static final String VERSION_SUFFIX = ":version";
+    private static final String SET_SCRIPT =
+            "if (redis.call('get', KEYS[2]) or '0') == ARGV[1] then " +
+                    "redis.call('set', KEYS[1], ARGV[2], 'px', ARGV[3]) " +
+                    "return 1 " +
+                    "end " +
+                    "return 0";
+    private static final String DELETE_SCRIPT =
+            "redis.call('del', KEYS[1]) " +
+                    "redis.call('incr', KEYS[2]) " +
+                    "redis.call('pexpire', KEYS[2], ARGV[1]) " +
+                    "return 1";
+
+    private final RedisClient client;
+    private final Duration retryInterval;
+    private final Lock connectLock = new ReentrantLock();
+    // Ключ -> время (System.nanoTime), после которого удаление уже не нужно
+    private final Map<String, Long> pendingDeletes = new ConcurrentHashMap<>();
+    private volatile StatefulRedisConnection<String, String> connection;
+    // Время (System.nanoTime), раньше которого подключение не выполняется
+    private volatile long retryAt = System.nanoTime();
+
+    public RedisRemoteCacheClient(@Value("${shareit.item-cache.redis.url:redis://localhost:6379}") String url,
+                                  @Value("${shareit.item-cache.redis.timeout:200ms}") Duration timeout,
+                                  @Value("${shareit.item-cache.redis.retry-interval:5s}") Duration retryInterval) {
+        RedisURI uri = RedisURI.create(url);
+        uri.setTimeout(timeout);
+        this.client = RedisClient.create(uri);
+        this.client.setOptions(ClientOptions.builder()
+                .autoReconnect(true)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public VersionedValue get(String key) {
+        try {
+            RedisCommands<String, String> commands = getCommands();
+            List<KeyValue<String, String>> values = commands.mget(key, key + VERSION_SUFFIX);
+            String version = values.get(1).getValueOrElse("0");
+            return new VersionedValue(values.get(0).getValueOrElse(null), Long.parseLong(version));
+        } catch (RedisException e) {
+            log.warn("Ошибка чтения из Redis ключа {}: {}", key, e.getMessage());
+            return new VersionedValue(null, VersionedValue.NO_VERSION);
+        }
+    }
+
+    @Override
+    public void set(String key, String value, long version, Duration ttl) {
+        try {
+            getCommands().eval(SET_SCRIPT, ScriptOutputType.INTEGER, new String[]{key, key + VERSION_SUFFIX},
+                    String.valueOf(version), value, String.valueOf(ttl.toMillis()));
+        } catch (RedisException e) {
+            log.warn("Ошибка записи в Redis ключа {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(String key, Duration versionTtl) {
+        try {
+            delete(getCommands(), key, versionTtl);
+        } catch (RedisException e) {
+            pendingDeletes.merge(key, System.nanoTime() + versionTtl.toNanos(), Math::max);
+            log.warn("Ошибка удаления из Redis ключа {}, удаление будет повторено: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (connection != null) {
+            connection.close();
+        }
+        client.shutdown();
+    }
+
+    private void delete(RedisCommands<String, String> commands, String key, Duration versionTtl) {
+        commands.eval(DELETE_SCRIPT, ScriptOutputType.INTEGER, new String[]{key, key + VERSION_SUFFIX},
+                String.valueOf(Math.max(versionTtl.toMillis(), 1)));
+    }
+
+    // Команды доступны только после повтора всех невыполненных удалений
+    private RedisCommands<String, String> getCommands() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null) {
+            current = connect();
+        }
+        RedisCommands<String, String> commands = current.sync();
+        if (!pendingDeletes.isEmpty()) {
+            retryDeletes(commands);
+        }
+        return commands;
+    }
+
+    private void retryDeletes(RedisCommands<String, String> commands) {
+        for (Map.Entry<String, Long> pending : pendingDeletes.entrySet()) {
+            long remaining = pending.getValue() - System.nanoTime();
+            if (remaining > 0) {
+                delete(commands, pending.getKey(), Duration.ofNanos(remaining));
+            }
+            pendingDeletes.remove(pending.getKey(), pending.getValue());
+        }
+    }
+
+    // Подключается один поток: остальные в это время, как и до retryAt, сразу получают ошибку
+    private StatefulRedisConnection<String, String> connect() {
+        if (System.nanoTime() - retryAt < 0 || !connectLock.tryLock()) {
+            throw new RedisConnectionException("Нет подключения к Redis");
+        }
+        try {
+            if (connection == null) {
+                try {
+                    connection = client.connect();
+                } catch (RedisException e) {
+                    retryAt = System.nanoTime() + retryInterval.toNanos();
+                    throw e;
+                }
+            }
+            return connection;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.util.cache;
+
+import java.time.Duration;
+
+/*
+    Клиент внешнего хранилища ключ-значение со строковыми значениями (Redis или совместимое).
+    Ошибки хранилища не должны приводить к ошибке запроса: недоступный кэш - это промах.
+    У каждого ключа есть версия, которая увеличивается при удалении: значение, прочитанное
+    до удаления, не перезапишет удаление
+ */
+public interface RemoteCacheClient {
+
+    // Значение (null, если его нет) и текущая версия ключа
+    VersionedValue get(String key);
+
+    // Запись выполняется, только если версия ключа все еще равна version
+    void set(String key, String value, long version, Duration ttl);
+
+    // Удаление значения с увеличением версии. Версия хранится versionTtl
+    void delete(String key, Duration versionTtl);
+}
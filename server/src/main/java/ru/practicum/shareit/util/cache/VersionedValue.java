@@ -0,0 +1,15 @@
+package ru.practicum.shareit.util.cache;
+
+import lombok.Value;
+
+/*
+    Значение ключа внешнего хранилища и его версия. Версия 0 - ключ еще не удалялся,
+    NO_VERSION - версию прочитать не удалось, запись с ней не выполняется
+ */
+@Value
+public class VersionedValue {
+    public static final long NO_VERSION = -1;
+
+    String value;
+    long version;
+}
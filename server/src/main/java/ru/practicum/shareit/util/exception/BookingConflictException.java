@@ -0,0 +1,9 @@
+package ru.practicum.shareit.util.exception;
+
+// Бронирование пересекается по времени с подтвержденным бронированием той же вещи
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.practicum.shareit.util.exception.BookingConflictException;
 import ru.practicum.shareit.util.exception.NotAvailableItemException;
 import ru.practicum.shareit.util.exception.NotFoundException;
 import ru.practicum.shareit.util.exception.ValidationException;
@@ -42,6 +43,12 @@ public class ErrorHandler {
         return getResponseEntity(HttpStatus.CONFLICT, exception);
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<String> handleBookingConflictException(BookingConflictException exception)
+            throws JsonProcessingException {
+        return getResponseEntity(HttpStatus.CONFLICT, exception);
+    }
+
     @ExceptionHandler(NotAvailableItemException.class)
     public ResponseEntity<String> handleNotAvailableItemException(NotAvailableItemException exception)
             throws JsonProcessingException {
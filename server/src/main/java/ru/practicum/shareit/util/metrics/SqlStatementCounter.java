@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+    Счетчик SQL запросов, выполненных в текущем потоке во время обработки HTTP запроса.
+    Кроме общего количества запоминаются отпечатки запросов (текст без значений параметров),
+    чтобы по повторам одного и того же запроса находить N+1
+ */
+public class SqlStatementCounter {
+    private static final ThreadLocal<SqlStatementCounter> COUNTER = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int count;
+    private final Map<String, Integer> fingerprints = new LinkedHashMap<>();
+
+    public static void start() {
+        COUNTER.set(new SqlStatementCounter());
+    }
+
+    // Вызывается для каждого SQL запроса; вне HTTP запроса ничего не считается
+    public static void increment(String sql) {
+        SqlStatementCounter counter = COUNTER.get();
+        if (counter != null) {
+            counter.count++;
+            counter.fingerprints.merge(fingerprint(sql), 1, Integer::sum);
+        }
+    }
+
+    public static SqlStatementCounter stop() {
+        SqlStatementCounter counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null ? new SqlStatementCounter() : counter;
+    }
+
+    /*
+        Отпечаток запроса: литералы заменяются на ?, списки in (?, ?, ...) сворачиваются,
+        пробелы нормализуются
+     */
+    static String fingerprint(String sql) {
+        String res = STRING_LITERAL.matcher(sql).replaceAll("?");
+        res = NUMBER_LITERAL.matcher(res).replaceAll("?");
+        res = IN_LIST.matcher(res).replaceAll("(...)");
+        return WHITESPACE.matcher(res).replaceAll(" ").trim().toLowerCase();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Отпечатки в порядке первого выполнения и количество выполнений каждого
+    public Map<String, Integer> getFingerprints() {
+        return Collections.unmodifiableMap(fingerprints);
+    }
+}
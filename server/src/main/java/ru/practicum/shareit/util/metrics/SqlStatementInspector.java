@@ -0,0 +1,15 @@
+package ru.practicum.shareit.util.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+    Подсчет SQL запросов, которые Hibernate отправляет в базу данных
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.increment(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.util.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+    Количество SQL запросов на один HTTP запрос: метрика shareit.http.sql.statements
+    с тегами method и uri (шаблон пути, как в http.server.requests).
+    При превышении порога warn-threshold в лог пишутся отпечатки выполненных запросов,
+    при превышении fail-threshold (0 - проверка выключена) обработка запроса завершается
+    исключением SqlStatementThresholdException - режим для интеграционных тестов.
+    Для запросов из excluded-uris (массовое создание и импорт, где количество SQL запросов
+    растет вместе с объемом данных) пороги не проверяются
+ */
+@Component
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    private final int failThreshold;
+    private final Set<String> excludedUris;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                     @Value("${shareit.sql-statements.warn-threshold:20}") int warnThreshold,
+                                     @Value("${shareit.sql-statements.fail-threshold:0}") int failThreshold,
+                                     @Value("${shareit.sql-statements.excluded-uris:}") Set<String> excludedUris) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+        this.failThreshold = failThreshold;
+        this.excludedUris = excludedUris;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.start();
+        SqlStatementCounter counter;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter = SqlStatementCounter.stop();
+            DistributionSummary.builder("shareit.http.sql.statements")
+                    .description("Количество SQL запросов на HTTP запрос")
+                    .tag("method", request.getMethod())
+                    .tag("uri", getUri(request))
+                    .register(meterRegistry)
+                    .record(counter.getCount());
+        }
+
+        checkThresholds(request, counter);
+    }
+
+    private void checkThresholds(HttpServletRequest request, SqlStatementCounter counter) {
+        if (counter.getCount() <= warnThreshold && (failThreshold <= 0 || counter.getCount() <= failThreshold)) {
+            return;
+        }
+        if (excludedUris.contains(getUri(request))) {
+            return;
+        }
+
+        String message = request.getMethod() + " " + getUri(request) + " выполнил " + counter.getCount() +
+                " SQL запросов (порог " + warnThreshold + "):\n" + describe(counter.getFingerprints());
+
+        if (failThreshold > 0 && counter.getCount() > failThreshold) {
+            throw new SqlStatementThresholdException(message);
+        }
+        log.warn(message);
+    }
+
+    // Сначала самые часто повторяющиеся запросы - обычно это и есть N+1
+    private String describe(Map<String, Integer> fingerprints) {
+        return fingerprints.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(entry -> "  " + entry.getValue() + " x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private String getUri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.util.metrics;
+
+public class SqlStatementThresholdException extends RuntimeException {
+
+    public SqlStatementThresholdException(String message) {
+        super(message);
+    }
+}
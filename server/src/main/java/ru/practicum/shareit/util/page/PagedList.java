@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/*
+    Страница списка в обертке (параметр envelope=true): элементы страницы, признак следующей
+    страницы и, если запрошено (total=true), общее количество элементов списка
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PagedList<T> {
+    private List<T> items;
+    private boolean hasNext;
+    private Long total; // общее количество или null, если не запрошено;
+    private Boolean totalExact; // false - оценка планировщика PostgreSQL для большого списка.
+
+    /*
+        Страница из списка, прочитанного с запасом в один элемент (size + 1):
+        лишний элемент означает, что следующая страница есть. size = null - список целиком
+     */
+    public static <T> PagedList<T> of(List<T> items, Integer size) {
+        if (size != null && items.size() > size) {
+            return new PagedList<>(new ArrayList<>(items.subList(0, size)), true, null, null);
+        }
+
+        return new PagedList<>(items, false, null, null);
+    }
+
+    // Размер, с которым читается список для страницы размера size
+    public static Integer getFetchSize(Integer size) {
+        return size == null ? null : size + 1;
+    }
+
+    /*
+        Общее количество элементов списка. from - позиция первого элемента страницы или null,
+        если она неизвестна (страница по курсору). На непустой последней странице количество
+        известно без запроса к базе данных: from + количество элементов страницы
+     */
+    public PagedList<T> withTotal(Integer from, Supplier<TotalCount> totalCount) {
+        TotalCount res = !hasNext && from != null && (from == 0 || !items.isEmpty())
+                ? new TotalCount(from + items.size(), true)
+                : totalCount.get();
+        total = res.getCount();
+        totalExact = res.isExact();
+        return this;
+    }
+
+    public <R> PagedList<R> map(Function<T, R> mapper) {
+        return new PagedList<>(items.stream().map(mapper).collect(Collectors.toList()), hasNext, total, totalExact);
+    }
+}
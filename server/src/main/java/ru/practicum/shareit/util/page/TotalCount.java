@@ -0,0 +1,10 @@
+package ru.practicum.shareit.util.page;
+
+import lombok.Value;
+
+// Общее количество элементов списка: точное или оценка
+@Value
+public class TotalCount {
+    long count;
+    boolean exact;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.util.page;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/*
+    Общее количество элементов списка для ответа в обертке.
+    Для небольших списков - точный count. Если включена оценка (только PostgreSQL), сначала
+    выполняется EXPLAIN запроса строк списка: когда планировщик ожидает больше exact-threshold
+    строк, возвращается его оценка без count по всему списку
+ */
+@Component
+@Slf4j
+public class TotalCounter {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean estimateEnabled;
+    private final long exactThreshold;
+
+    public TotalCounter(NamedParameterJdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.page.total-estimate:false}") boolean estimateEnabled,
+                        @Value("${shareit.page.exact-count-threshold:10000}") long exactThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.estimateEnabled = estimateEnabled;
+        this.exactThreshold = exactThreshold;
+    }
+
+    // Всегда точное количество
+    public TotalCount count(LongSupplier exactCount) {
+        return new TotalCount(exactCount.getAsLong(), true);
+    }
+
+    /*
+        rowsSql - native запрос строк списка с именованными параметрами (select 1 from ... where ...),
+        по нему планировщик оценивает количество строк. exactCount - точный count того же списка
+     */
+    public TotalCount count(String rowsSql, Map<String, ?> parameters, LongSupplier exactCount) {
+        if (estimateEnabled) {
+            long estimate = estimate(rowsSql, parameters);
+            if (estimate > exactThreshold) {
+                return new TotalCount(estimate, false);
+            }
+        }
+
+        return count(exactCount);
+    }
+
+    private long estimate(String rowsSql, Map<String, ?> parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + rowsSql, parameters, String.class);
+
+        JsonNode rows;
+        try {
+            rows = objectMapper.readTree(plan).at("/0/Plan/Plan Rows");
+        } catch (JsonProcessingException exception) {
+            log.warn("Не удалось разобрать план запроса для оценки количества строк: {}", plan);
+            return 0;
+        }
+
+        if (rows.isMissingNode() || !rows.canConvertToLong()) {
+            log.warn("В плане запроса нет оценки количества строк: {}", plan);
+            return 0;
+        }
+        return rows.asLong();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+    Индексы под запросы списков. Каждый индекс начинается с полей условия равенства,
+    дальше идет поле сортировки или диапазона, чтобы запрос читал только нужные строки
+    индекса в нужном порядке, без сортировки всей выборки
+ */
+
+-- Вещи владельца
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+-- Вещи, созданные в ответ на запросы
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+-- Запросы пользователя и чужие запросы по дате создания
+CREATE INDEX IF NOT EXISTS ix_requests_user_created ON requests (user_id, create_date DESC);
+
+-- Комментарии к вещам
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+-- Бронирования пользователя: ALL, CURRENT, FUTURE и постраничный вывод по ключу (start_date, id)
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+-- Бронирования пользователя: PAST
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_end ON bookings (booker_id, end_date);
+
+-- Бронирования пользователя: WAITING, REJECTED
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+-- Бронирования вещей владельца: ALL, CURRENT, FUTURE, PAST (вещи владельца через ix_items_owner)
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+-- Бронирования вещей владельца по статусу, последнее и следующее подтвержденное бронирование вещи,
+-- проверка бронирования перед добавлением комментария
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_date, start_date);
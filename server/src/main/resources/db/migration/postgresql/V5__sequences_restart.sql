@@ -0,0 +1,10 @@
+/*
+    Для уже заполненных таблиц последовательности продолжаются после максимального id.
+    Hibernate считает значение последовательности верхней границей выделенного диапазона,
+    поэтому следующее значение должно быть не меньше max(id) + 50
+ */
+SELECT setval('users_seq', coalesce(max(id), 0) + 50, false) FROM users;
+SELECT setval('requests_seq', coalesce(max(id), 0) + 50, false) FROM requests;
+SELECT setval('items_seq', coalesce(max(id), 0) + 50, false) FROM items;
+SELECT setval('bookings_seq', coalesce(max(id), 0) + 50, false) FROM bookings;
+SELECT setval('comments_seq', coalesce(max(id), 0) + 50, false) FROM comments;
@@ -0,0 +1,38 @@
+-- Подтвержденные бронирования одной вещи не пересекаются по времени. Ограничение исключения
+-- проверяется по GiST индексу (item_id, tsrange(start_date, end_date)): для сравнения item_id
+-- на равенство в GiST индексе нужно расширение btree_gist.
+-- Столбцы дат - timestamp without time zone, поэтому используется tsrange, а не tstzrange
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Пересекающиеся подтвержденные бронирования, созданные до появления проверки, разбираются
+-- жадным проходом по каждой вещи в порядке начала: бронирование остается, если не пересекается
+-- с уже оставленными, иначе отклоняется. Оставленные бронирования вещи не пересекаются и идут
+-- по возрастанию начала, поэтому достаточно сравнивать с окончанием последнего из них
+DO
+$$
+    DECLARE
+        booking   RECORD;
+        last_item bookings.item_id%TYPE;
+        last_end  bookings.end_date%TYPE;
+    BEGIN
+        FOR booking IN SELECT id, item_id, start_date, end_date
+                       FROM bookings
+                       WHERE status = 'APPROVED'
+                       ORDER BY item_id, start_date, id
+            LOOP
+                IF booking.item_id IS DISTINCT FROM last_item THEN
+                    last_item := booking.item_id;
+                    last_end := booking.end_date;
+                ELSIF booking.start_date < last_end THEN
+                    UPDATE bookings SET status = 'REJECTED' WHERE id = booking.id;
+                ELSE
+                    last_end := booking.end_date;
+                END IF;
+            END LOOP;
+    END
+$$;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_bookings_item_approved
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status = 'APPROVED');
@@ -18,12 +18,21 @@ import ru.practicum.shareit.TestUtil;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingExportFormat;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.page.PagedList;
+import ru.practicum.shareit.util.page.TotalCount;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -31,9 +40,17 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +62,8 @@ public class BookingControllerTest {
 
     private BookingServiceImpl bookingService;
 
+    private BookingExportService bookingExportService;
+
     private BookingController bookingController;
 
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
@@ -57,7 +76,9 @@ public class BookingControllerTest {
     void setUp() {
         bookingService = mock(BookingServiceImpl.class);
 
-        bookingController = new BookingController(bookingService);
+        bookingExportService = mock(BookingExportService.class);
+
+        bookingController = new BookingController(bookingService, bookingExportService);
 
         mockMvc = MockMvcBuilders
                 .standaloneSetup(bookingController)
@@ -82,6 +103,20 @@ public class BookingControllerTest {
         Assertions.assertNotNull(bookingDto);
     }
 
+    @Test
+    public void testCreateAllSuccess() throws Exception {
+        when(bookingService.createAll(any(), any()))
+                .thenReturn(List.of(getDefaultBooking(1L, booker, item), getDefaultBooking(3L, booker, item)));
+
+        List<BookingDto> bookings = sendRequestCreateAllBookings(
+                List.of(getDefaultBookingCreateDto(item.getId()), getDefaultBookingCreateDto(4L)), booker.getId());
+
+        Assertions.assertEquals(2, bookings.size());
+        verify(bookingService).createAll(argThat(list -> list.size() == 2
+                && list.get(0).getItem().getId().equals(item.getId())
+                && list.get(1).getItem().getId().equals(4L)), eq(booker.getId()));
+    }
+
     @Test
     public void testApproveSuccess() throws Exception {
         when(bookingService.approve(any(), any(), anyBoolean()))
@@ -105,7 +140,7 @@ public class BookingControllerTest {
 
     @Test
     public void testFindAllByBookerSuccess() throws Exception {
-        when(bookingService.findAllByBooker(any(), any(), any(), any()))
+        when(bookingService.findAll(eq(BookingRole.BOOKER), any(), any(), any(BookingFilter.class), any(), any()))
                 .thenReturn(List.of(getDefaultBooking(1L, booker, item),
                         getDefaultBooking(3L, booker, item)));
 
@@ -117,7 +152,7 @@ public class BookingControllerTest {
 
     @Test
     public void testFindAllByOwnerSuccess() throws Exception {
-        when(bookingService.findAllByOwner(any(), any(), any(), any()))
+        when(bookingService.findAll(eq(BookingRole.OWNER), any(), any(), any(BookingFilter.class), any(), any()))
                 .thenReturn(List.of(getDefaultBooking(1L, booker, item),
                         getDefaultBooking(3L, booker, item)));
 
@@ -127,6 +162,145 @@ public class BookingControllerTest {
         Assertions.assertNotNull(bookings);
     }
 
+    @Test
+    public void testFindAllByOwnerWithFilterSuccess() throws Exception {
+        LocalDateTime rangeStart = LocalDateTime.of(2030, 1, 1, 0, 0);
+        BookingFilter filter = new BookingFilter(item.getId(), rangeStart, rangeStart.plusDays(7));
+        when(bookingService.findAll(eq(BookingRole.OWNER), any(), any(), eq(filter), any(), any()))
+                .thenReturn(List.of(getDefaultBooking(1L, booker, item)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(owner.getId()));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .headers(headers)
+                        .param("itemId", String.valueOf(item.getId()))
+                        .param("rangeStart", "2030-01-01T00:00:00")
+                        .param("rangeEnd", "2030-01-08T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    public void testFindAllByOwnerWithCursorSuccess() throws Exception {
+        Booking last = getDefaultBooking(3L, booker, item);
+        when(bookingService.findAllAfter(eq(BookingRole.OWNER), any(), any(), any(BookingFilter.class), any(), any()))
+                .thenReturn(List.of(getDefaultBooking(1L, booker, item), last));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(owner.getId()));
+
+        MvcResult res = mockMvc.perform(get("/bookings/owner")
+                        .headers(headers)
+                        .param("cursor", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Assertions.assertEquals(BookingCursor.of(last).encode(),
+                res.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testFindPageWithTotalSuccess() throws Exception {
+        PagedList<Booking> page = PagedList.of(
+                List.of(getDefaultBooking(1L, booker, item), getDefaultBooking(3L, booker, item)), 1);
+        page.withTotal(null, () -> new TotalCount(2, true));
+        when(bookingService.findPage(eq(BookingRole.BOOKER), any(), any(), any(BookingFilter.class),
+                eq(0), eq(1), eq(true)))
+                .thenReturn(page);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(booker.getId()));
+
+        mockMvc.perform(get("/bookings")
+                        .headers(headers)
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("envelope", "true")
+                        .param("total", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.totalExact").value(true));
+    }
+
+    @Test
+    public void testFindPageByOwnerWithCursorSuccess() throws Exception {
+        Booking last = getDefaultBooking(3L, booker, item);
+        when(bookingService.findPageAfter(eq(BookingRole.OWNER), any(), any(), any(BookingFilter.class),
+                eq(""), eq(2), eq(false)))
+                .thenReturn(PagedList.of(List.of(getDefaultBooking(1L, booker, item), last,
+                        getDefaultBooking(4L, booker, item)), 2));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(owner.getId()));
+
+        MvcResult res = mockMvc.perform(get("/bookings/owner")
+                        .headers(headers)
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .param("envelope", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.total").doesNotExist())
+                .andReturn();
+
+        Assertions.assertEquals(BookingCursor.of(last).encode(),
+                res.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testFindAllByBookerWithCursorLastPage() throws Exception {
+        when(bookingService.findAllAfter(eq(BookingRole.BOOKER), any(), any(), any(BookingFilter.class), any(), any()))
+                .thenReturn(List.of(getDefaultBooking(1L, booker, item)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(booker.getId()));
+
+        MvcResult res = mockMvc.perform(get("/bookings")
+                        .headers(headers)
+                        .param("cursor", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Assertions.assertNull(res.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testExportByOwnerSuccess() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(3);
+            output.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookingExportService).exportByOwner(eq(owner.getId()), eq("PAST"), eq(BookingExportFormat.CSV), any());
+
+        MvcResult res = mockMvc.perform(get("/bookings/owner/export")
+                        .header(X_SHARER_USER_ID, owner.getId())
+                        .param("state", "PAST")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(res))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id\n1\n"));
+        verify(bookingExportService).validateExportByOwner(owner.getId(), "PAST");
+    }
+
+    @Test
+    public void testExportByOwnerUnknownFormat() {
+        Assertions.assertThrows(Exception.class, () -> mockMvc.perform(get("/bookings/owner/export")
+                .header(X_SHARER_USER_ID, owner.getId())
+                .param("format", "xml")));
+        verifyNoInteractions(bookingExportService);
+    }
+
     private BookingDto sendRequestGetBooking(Long bookingId, Long userId) throws Exception {
         HttpHeaders headers = new HttpHeaders();
         headers.add(X_SHARER_USER_ID, String.valueOf(userId));
@@ -174,6 +348,21 @@ public class BookingControllerTest {
                         BookingDto.class);
     }
 
+    private List<BookingDto> sendRequestCreateAllBookings(
+            List<BookingCreateDto> bookingCreateDtos, Long userId) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(userId));
+
+        MvcResult res = mockMvc.perform(post("/bookings/batch")
+                        .headers(headers)
+                        .content(objectMapper.writeValueAsString(bookingCreateDtos))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(res.getResponse().getContentAsString(),
+                ArrayList.class);
+    }
+
     private List<BookingDto> sendRequestFindAllByBookerBookingWithParams(
             Long userId, String state, Integer from, Integer size) throws Exception {
         HttpHeaders headers = new HttpHeaders();
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingExportFormat;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.exception.NotFoundException;
+import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.metrics.SqlStatementCounter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Размер порции меньше количества бронирований, чтобы выгрузка прошла через очистку контекста постоянства
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "shareit.export.fetch-size=2")
+@AutoConfigureTestDatabase
+public class BookingExportServiceTest {
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private List<Booking> bookings;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = addUser("Name user");
+        booker = addUser("Booker, \"Jr\"");
+        Item item1 = addItem(owner);
+        Item item2 = addItem(owner);
+        addItem(addUser("Name user"));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookings = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            bookings.add(addBooking(i % 2 == 0 ? item1 : item2, now.plusDays(i), now.plusDays(i + 1),
+                    i == 3 ? BookingStatus.WAITING : BookingStatus.APPROVED));
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testExportNdjsonSuccess() throws Exception {
+        SqlStatementCounter.start();
+        String res = export("ALL", BookingExportFormat.NDJSON);
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        String[] lines = res.split("\n");
+        Assertions.assertEquals(5, lines.length);
+        // Порядок - по дате начала по убыванию
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            Booking booking = bookings.get(bookings.size() - 1 - i);
+            Assertions.assertEquals(booking.getId(), node.get("id").asLong());
+            Assertions.assertEquals(booking.getItem().getId(), node.get("item").get("id").asLong());
+            Assertions.assertEquals(booker.getId(), node.get("booker").get("id").asLong());
+        }
+        // Вещи, владелец и автор бронирования загружаются тем же запросом, что и бронирования
+        Assertions.assertEquals(1, counter.getCount());
+    }
+
+    @Test
+    public void testExportCsvSuccess() throws Exception {
+        String[] lines = export("ALL", BookingExportFormat.CSV).split("\n");
+
+        Assertions.assertEquals(6, lines.length);
+        Assertions.assertEquals("id,start,end,status,itemId,itemName,bookerId,bookerName", lines[0]);
+        Booking booking = bookings.get(4);
+        Assertions.assertEquals(booking.getId() + "," + booking.getStart() + "," + booking.getEnd()
+                + ",APPROVED," + booking.getItem().getId() + ",Name item," + booker.getId()
+                + ",\"Booker, \"\"Jr\"\"\"", lines[1]);
+    }
+
+    @Test
+    public void testExportByState() throws Exception {
+        String[] lines = export("WAITING", BookingExportFormat.NDJSON).split("\n");
+
+        Assertions.assertEquals(1, lines.length);
+        Assertions.assertEquals(bookings.get(2).getId(), objectMapper.readTree(lines[0]).get("id").asLong());
+    }
+
+    @Test
+    public void testExportNotOwner() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExportService.exportByOwner(booker.getId(), "ALL", BookingExportFormat.NDJSON, output);
+
+        Assertions.assertEquals(0, output.size());
+    }
+
+    @Test
+    public void testValidateExportFailed() {
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingExportService.validateExportByOwner(owner.getId(), "UNKNOWN"));
+        Assertions.assertThrows(NotFoundException.class,
+                () -> bookingExportService.validateExportByOwner(Long.MAX_VALUE, "ALL"));
+    }
+
+    private String export(String state, BookingExportFormat format) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExportService.exportByOwner(owner.getId(), state, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private Booking addBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    private Item addItem(User user) {
+        return itemRepository.save(Item.builder()
+                .name("Name item")
+                .description("Description item")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    private User addUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,20 +9,48 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserCache;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.exception.BookingConflictException;
 import ru.practicum.shareit.util.exception.NotAvailableItemException;
 import ru.practicum.shareit.util.exception.NotFoundException;
 import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.metrics.SqlStatementCounter;
+import ru.practicum.shareit.util.page.PagedList;
+import ru.practicum.shareit.util.page.TotalCounter;
 
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @AutoConfigureTestDatabase
@@ -37,6 +67,12 @@ public class BookingServiceTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User owner;
     private Item item;
     private User booker;
@@ -52,6 +88,7 @@ public class BookingServiceTest {
     public void afterEach() {
         bookingRepository.deleteAll();
         itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
         userRepository.deleteAll();
     }
 
@@ -116,6 +153,50 @@ public class BookingServiceTest {
                         item.getId()));
     }
 
+    /*
+        Тесты на метод List<Booking> createAll(List<Booking> bookings, Long userId)
+     */
+
+    @Test
+    public void testCreateAllSuccess() {
+        Item item2 = addItem(owner);
+        Booking booking1 = getDefaultBooking(LocalDateTime.now().plusDays(1));
+        booking1.setItem(Item.builder().id(item.getId()).build());
+        Booking booking2 = getDefaultBooking(LocalDateTime.now().plusDays(2));
+        booking2.setItem(Item.builder().id(item2.getId()).build());
+
+        List<Booking> res = bookingService.createAll(List.of(booking1, booking2), booker.getId());
+
+        Assertions.assertEquals(2, res.size());
+        Assertions.assertEquals(item.getId(), res.get(0).getItem().getId());
+        Assertions.assertEquals(item2.getId(), res.get(1).getItem().getId());
+        Assertions.assertEquals(BookingStatus.WAITING, res.get(1).getStatus());
+        Assertions.assertEquals(booker.getId(), res.get(1).getBooker().getId());
+        Assertions.assertEquals(2, bookingService.findAll(BookingRole.BOOKER, booker.getId(), BookingState.ALL.name(),
+                BookingFilter.empty(), null, null).size());
+    }
+
+    @Test
+    public void testCreateAllFailedNoItemSavesNothing() {
+        Booking booking1 = getDefaultBooking(LocalDateTime.now().plusDays(1));
+        booking1.setItem(Item.builder().id(item.getId()).build());
+        Booking booking2 = getDefaultBooking(LocalDateTime.now().plusDays(2));
+        booking2.setItem(Item.builder().id(item.getId() + 100).build());
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(List.of(booking1, booking2), booker.getId()));
+        Assertions.assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    public void testCreateAllFailedBookingByOwner() {
+        Booking booking = getDefaultBooking(LocalDateTime.now().plusDays(1));
+        booking.setItem(Item.builder().id(item.getId()).build());
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(List.of(booking), owner.getId()));
+    }
+
     /*
         Тесты на метод Booking get(Long bookingId, Long userId);
      */
@@ -227,9 +308,144 @@ public class BookingServiceTest {
     }
 
     /*
-           Тесты на метод:
-           List<Booking> findAllByBooker(
-                Long userId, String bookingState, Integer from, Integer size);
+        Тесты на пересечение с подтвержденными бронированиями
+     */
+
+    @Test
+    public void testCreateFailedOverlapApproved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking approved = bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        bookingService.approve(approved.getId(), owner.getId(), true);
+
+        Assertions.assertThrows(BookingConflictException.class,
+                () -> bookingService.create(getDefaultBooking(start.plusDays(9)), addUser().getId(), item.getId()));
+    }
+
+    @Test
+    public void testCreateAdjacentToApprovedSuccess() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking approved = bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        bookingService.approve(approved.getId(), owner.getId(), true);
+
+        // Интервалы полуоткрытые: бронирование может начаться в момент окончания предыдущего
+        Booking res = bookingService.create(getDefaultBooking(approved.getEnd()), booker.getId(), item.getId());
+        bookingService.approve(res.getId(), owner.getId(), true);
+
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingService.get(res.getId(), owner.getId()).getStatus());
+    }
+
+    @Test
+    public void testCreateOverlapWaitingSuccess() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+
+        Booking res = bookingService.create(getDefaultBooking(start.plusDays(1)), addUser().getId(), item.getId());
+
+        Assertions.assertEquals(BookingStatus.WAITING, res.getStatus());
+    }
+
+    @Test
+    public void testApproveFailedOverlapApproved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking first = bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        Booking second = bookingService.create(getDefaultBooking(start.plusDays(5)), addUser().getId(), item.getId());
+        bookingService.approve(first.getId(), owner.getId(), true);
+
+        Assertions.assertThrows(BookingConflictException.class,
+                () -> bookingService.approve(second.getId(), owner.getId(), true));
+
+        // Отклонить пересекающееся бронирование можно
+        bookingService.approve(second.getId(), owner.getId(), false);
+        Assertions.assertEquals(BookingStatus.REJECTED, bookingService.get(second.getId(), owner.getId()).getStatus());
+    }
+
+    // Нарушение ограничения исключения PostgreSQL (SQLSTATE 23P01) - конфликт бронирований без текста SQL,
+    // остальные нарушения целостности не подменяются
+    @Test
+    public void testApproveExclusionViolationConflict() {
+        BookingRepository repository = mock(BookingRepository.class);
+        UserCache userCache = mock(UserCache.class);
+        BookingService service = new BookingServiceImpl(repository, userCache, mock(ItemRepository.class),
+                mock(ItemDtoCache.class), mock(TotalCounter.class));
+        Booking booking = getDefaultBooking(LocalDateTime.now().plusDays(1));
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.WAITING);
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(repository.findWithItemAndBookerById(booking.getId())).thenReturn(Optional.of(booking));
+        when(repository.saveAndFlush(booking))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("null value in column violates not-null constraint", "23502")));
+
+        BookingConflictException exception = Assertions.assertThrows(BookingConflictException.class,
+                () -> service.approve(booking.getId(), owner.getId(), true));
+        Assertions.assertFalse(exception.getMessage().contains("constraint"));
+
+        booking.setStatus(BookingStatus.WAITING);
+        Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> service.approve(booking.getId(), owner.getId(), true));
+    }
+
+    @Test
+    public void testCreateAllFailedOverlapApproved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking approved = bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        bookingService.approve(approved.getId(), owner.getId(), true);
+        Item otherItem = addItem(owner);
+
+        List<Booking> bookings = List.of(
+                getBookingWithItemId(start, otherItem),
+                getBookingWithItemId(start.plusDays(3), item));
+
+        Assertions.assertThrows(BookingConflictException.class,
+                () -> bookingService.createAll(bookings, addUser().getId()));
+        Assertions.assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testApproveConcurrentOverlapOnlyOneApproved() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bookingIds.add(bookingService.create(getDefaultBooking(start.plusHours(i)), addUser().getId(),
+                    item.getId()).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.approve(bookingId, owner.getId(), true);
+                    return true;
+                } catch (BookingConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+
+        int approvedCount = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                approvedCount++;
+            }
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(1, approvedCount);
+        Assertions.assertEquals(1, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count());
+    }
+
+    /*
+           Тесты на метод findAll(BookingRole.BOOKER, ...)
      */
 
     @Test
@@ -338,36 +554,34 @@ public class BookingServiceTest {
     @Test
     public void testFindAllByBookerFailedNoUser() {
         Assertions.assertThrows(NotFoundException.class,
-                () -> bookingService.findAllByBooker(owner.getId() + 3,
-                        BookingState.ALL.name(), null, null));
+                () -> bookingService.findAll(BookingRole.BOOKER, owner.getId() + 3,
+                        BookingState.ALL.name(), BookingFilter.empty(), null, null));
     }
 
     @Test
     public void testFindAllByBookerFailedNoState() {
         Assertions.assertThrows(ValidationException.class,
-                () -> bookingService.findAllByBooker(owner.getId(),
-                        "NO_SUPPORTED_STATE", null, null));
+                () -> bookingService.findAll(BookingRole.BOOKER, owner.getId(),
+                        "NO_SUPPORTED_STATE", BookingFilter.empty(), null, null));
     }
 
     @Test
     public void testFindAllByBookerFailedNoFrom() {
         Assertions.assertThrows(ValidationException.class,
-                () -> bookingService.findAllByBooker(booker.getId(),
-                        BookingState.ALL.name(), null, 1));
+                () -> bookingService.findAll(BookingRole.BOOKER, booker.getId(),
+                        BookingState.ALL.name(), BookingFilter.empty(), null, 1));
     }
 
     @Test
     public void testFindAllByBookerFailedNoSize() {
         Assertions.assertThrows(ValidationException.class,
-                () -> bookingService.findAllByBooker(booker.getId(),
-                        BookingState.ALL.name(), 0, null));
+                () -> bookingService.findAll(BookingRole.BOOKER, booker.getId(),
+                        BookingState.ALL.name(), BookingFilter.empty(), 0, null));
     }
 
 
     /*
-           Тесты на метод:
-           List<Booking> findAllByOwner(
-               Long userId, String bookingState, Integer from, Integer size);
+           Тесты на метод findAll(BookingRole.OWNER, ...)
      */
 
     @Test
@@ -476,29 +690,260 @@ public class BookingServiceTest {
     @Test
     public void testFindAllByOwnerFailedNoUser() {
         Assertions.assertThrows(NotFoundException.class,
-                () -> bookingService.findAllByOwner(owner.getId() + 3,
-                        BookingState.ALL.name(), null, null));
+                () -> bookingService.findAll(BookingRole.OWNER, owner.getId() + 3,
+                        BookingState.ALL.name(), BookingFilter.empty(), null, null));
     }
 
     @Test
     public void testFindAllByOwnerFailedNoFrom() {
         Assertions.assertThrows(ValidationException.class,
-                () -> bookingService.findAllByOwner(booker.getId(),
-                        BookingState.ALL.name(), null, 1));
+                () -> bookingService.findAll(BookingRole.OWNER, booker.getId(),
+                        BookingState.ALL.name(), BookingFilter.empty(), null, 1));
     }
 
     @Test
     public void testFindAllByOwnerFailedNoSize() {
         Assertions.assertThrows(ValidationException.class,
-                () -> bookingService.findAllByOwner(booker.getId(),
-                        BookingState.ALL.name(), 0, null));
+                () -> bookingService.findAll(BookingRole.OWNER, booker.getId(),
+                        BookingState.ALL.name(), BookingFilter.empty(), 0, null));
     }
 
     @Test
     public void testFindAllByOwnerFailedNoState() {
         Assertions.assertThrows(ValidationException.class,
-                () -> bookingService.findAllByOwner(owner.getId(),
-                        "NO_SUPPORTED_STATE", null, null));
+                () -> bookingService.findAll(BookingRole.OWNER, owner.getId(),
+                        "NO_SUPPORTED_STATE", BookingFilter.empty(), null, null));
+    }
+
+    /*
+           Списки читаются проекцией одним запросом и совпадают с бронированиями, прочитанными сущностями
+     */
+
+    @Test
+    public void testFindAllByOwnerSingleQuerySameAsEntities() {
+        ItemRequest itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("Request")
+                .requester(booker)
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build());
+        Item requestedItem = getDefaultItem(owner);
+        requestedItem.setRequest(itemRequest);
+        requestedItem = itemRepository.save(requestedItem);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingService.create(getDefaultBooking(start.plusDays(1)), booker.getId(), item.getId());
+        bookingService.create(getDefaultBooking(start.plusDays(2)), booker.getId(), requestedItem.getId());
+        bookingService.create(getDefaultBooking(start.plusDays(3)), booker.getId(), item.getId());
+
+        SqlStatementCounter.start();
+        List<BookingView> views = bookingRepository.findByState(BookingRole.OWNER, owner.getId(),
+                BookingState.ALL, BookingFilter.empty(), LocalDateTime.now(), null, null);
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        Assertions.assertEquals(1, counter.getCount());
+        Assertions.assertEquals(3, views.size());
+        Assertions.assertEquals(itemRequest.getId(), views.get(1).getRequestId());
+
+        List<Booking> res = bookingService.findAll(BookingRole.OWNER, owner.getId(), BookingState.ALL.name(),
+                BookingFilter.empty(), null, null);
+        for (Booking booking : res) {
+            Assertions.assertEquals(
+                    BookingMapper.toBookingDto(bookingRepository.findWithItemAndBookerById(booking.getId()).get()),
+                    BookingMapper.toBookingDto(booking));
+        }
+    }
+
+    /*
+           Тесты на постраничный вывод по курсору:
+           findAllAfter(BookingRole.BOOKER, ...), findAllAfter(BookingRole.OWNER, ...)
+     */
+
+    @Test
+    public void testFindAllByBookerAfterAllPages() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        }
+
+        List<Booking> page1 = bookingService.findAllAfter(BookingRole.BOOKER,
+                booker.getId(), BookingState.ALL.name(), BookingFilter.empty(), "", 2);
+        List<Booking> page2 = bookingService.findAllAfter(BookingRole.BOOKER,
+                booker.getId(), BookingState.ALL.name(), BookingFilter.empty(),
+                BookingCursor.of(page1.get(1)).encode(), 2);
+        List<Booking> page3 = bookingService.findAllAfter(BookingRole.BOOKER,
+                booker.getId(), BookingState.ALL.name(), BookingFilter.empty(),
+                BookingCursor.of(page2.get(1)).encode(), 2);
+
+        Assertions.assertEquals(2, page1.size());
+        Assertions.assertEquals(2, page2.size());
+        Assertions.assertEquals(1, page3.size());
+        Assertions.assertTrue(page1.get(1).getId() > page2.get(0).getId());
+        Assertions.assertTrue(page2.get(1).getId() > page3.get(0).getId());
+    }
+
+    @Test
+    public void testFindAllByOwnerAfterStateFuture() {
+        bookingService.create(getDefaultBooking(LocalDateTime.now().minusDays(100)),
+                booker.getId(), item.getId());
+        Booking booking1 = bookingService.create(getDefaultBooking(LocalDateTime.now().plusDays(2)),
+                booker.getId(), item.getId());
+        Booking booking2 = bookingService.create(getDefaultBooking(LocalDateTime.now().plusDays(1)),
+                booker.getId(), item.getId());
+
+        List<Booking> page1 = bookingService.findAllAfter(BookingRole.OWNER,
+                owner.getId(), BookingState.FUTURE.name(), BookingFilter.empty(), null, 1);
+        List<Booking> page2 = bookingService.findAllAfter(BookingRole.OWNER,
+                owner.getId(), BookingState.FUTURE.name(), BookingFilter.empty(),
+                BookingCursor.of(page1.get(0)).encode(), 5);
+
+        Assertions.assertEquals(booking1.getId(), page1.get(0).getId());
+        Assertions.assertEquals(1, page2.size());
+        Assertions.assertEquals(booking2.getId(), page2.get(0).getId());
+    }
+
+    @Test
+    public void testFindAllByBookerAfterFailedCursor() {
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.findAllAfter(BookingRole.BOOKER, booker.getId(),
+                        BookingState.ALL.name(), BookingFilter.empty(), "not-a-cursor", 2));
+    }
+
+    @Test
+    public void testFindAllByOwnerAfterFailedNoSize() {
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.findAllAfter(BookingRole.OWNER, owner.getId(),
+                        BookingState.ALL.name(), BookingFilter.empty(), "", null));
+    }
+
+    /*
+           Тесты на дополнительные условия списка: вещь и интервал дат
+     */
+
+    @Test
+    public void testFindAllByOwnerFilteredByItem() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Item item2 = addItem(owner);
+        bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        Booking booking = bookingService.create(getDefaultBooking(start), booker.getId(), item2.getId());
+
+        List<Booking> res = bookingService.findAll(BookingRole.OWNER, owner.getId(), BookingState.ALL.name(),
+                BookingFilter.builder().itemId(item2.getId()).build(), null, null);
+
+        Assertions.assertEquals(1, res.size());
+        Assertions.assertEquals(booking.getId(), res.get(0).getId());
+    }
+
+    @Test
+    public void testFindAllByBookerFilteredByRange() {
+        LocalDateTime start = LocalDateTime.now().plusDays(100);
+        Booking booking1 = bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        Booking booking2 = bookingService.create(getDefaultBooking(start.plusDays(20)),
+                booker.getId(), item.getId());
+        bookingService.create(getDefaultBooking(start.plusDays(40)), booker.getId(), item.getId());
+        BookingFilter filter = BookingFilter.builder()
+                .rangeStart(start.plusDays(5))
+                .rangeEnd(start.plusDays(25))
+                .build();
+
+        List<Booking> res = bookingService.findAll(BookingRole.BOOKER, booker.getId(), BookingState.FUTURE.name(),
+                filter, null, null);
+        List<Booking> page = bookingService.findAllAfter(BookingRole.BOOKER, booker.getId(), BookingState.ALL.name(),
+                filter, BookingCursor.of(res.get(0)).encode(), 5);
+
+        Assertions.assertEquals(2, res.size());
+        Assertions.assertEquals(booking2.getId(), res.get(0).getId());
+        Assertions.assertEquals(booking1.getId(), res.get(1).getId());
+        Assertions.assertEquals(1, page.size());
+        Assertions.assertEquals(booking1.getId(), page.get(0).getId());
+    }
+
+    @Test
+    public void testFindAllFailedRange() {
+        LocalDateTime start = LocalDateTime.now();
+        BookingFilter filter = BookingFilter.builder()
+                .rangeStart(start)
+                .rangeEnd(start)
+                .build();
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.findAll(BookingRole.OWNER, owner.getId(), BookingState.ALL.name(), filter,
+                        null, null));
+    }
+
+    // Значения условий передаются параметрами: запрос другого пользователя использует тот же план
+    @Test
+    public void testFindAllQueryPlanReused() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bookingService.findAll(BookingRole.BOOKER, booker.getId(), BookingState.CURRENT.name(), BookingFilter.empty(),
+                null, null);
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        bookingService.findAll(BookingRole.BOOKER, owner.getId(), BookingState.CURRENT.name(), BookingFilter.empty(),
+                null, null);
+        bookingService.findAll(BookingRole.BOOKER, booker.getId(), BookingState.CURRENT.name(), BookingFilter.empty(),
+                null, null);
+
+        Assertions.assertEquals(misses, statistics.getQueryPlanCacheMissCount());
+    }
+
+    /*
+           Тесты на списки в обертке: findPage(...), findPageAfter(...)
+     */
+
+    @Test
+    public void testFindPageHasNextAndTotal() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.create(getDefaultBooking(start.plusDays(i)), booker.getId(), item.getId());
+        }
+
+        PagedList<Booking> page1 = bookingService.findPage(BookingRole.BOOKER, booker.getId(),
+                BookingState.ALL.name(), BookingFilter.empty(), 0, 2, true);
+        PagedList<Booking> page3 = bookingService.findPage(BookingRole.BOOKER, booker.getId(),
+                BookingState.ALL.name(), BookingFilter.empty(), 4, 2, false);
+
+        Assertions.assertEquals(2, page1.getItems().size());
+        Assertions.assertTrue(page1.isHasNext());
+        Assertions.assertEquals(5, page1.getTotal());
+        Assertions.assertTrue(page1.getTotalExact());
+        Assertions.assertEquals(1, page3.getItems().size());
+        Assertions.assertFalse(page3.isHasNext());
+        Assertions.assertNull(page3.getTotal());
+    }
+
+    @Test
+    public void testFindPageTotalFiltered() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Item item2 = addItem(owner);
+        bookingService.create(getDefaultBooking(start), booker.getId(), item.getId());
+        bookingService.create(getDefaultBooking(start), booker.getId(), item2.getId());
+        bookingService.create(getDefaultBooking(start.plusDays(1)), booker.getId(), item2.getId());
+
+        PagedList<Booking> page = bookingService.findPage(BookingRole.OWNER, owner.getId(),
+                BookingState.FUTURE.name(), BookingFilter.builder().itemId(item2.getId()).build(), 0, 1, true);
+
+        Assertions.assertEquals(1, page.getItems().size());
+        Assertions.assertTrue(page.isHasNext());
+        Assertions.assertEquals(2, page.getTotal());
+    }
+
+    // Последняя страница по курсору: следующей страницы нет, общее количество считается запросом
+    @Test
+    public void testFindPageAfterLastPage() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            bookingService.create(getDefaultBooking(start.plusDays(i)), booker.getId(), item.getId());
+        }
+
+        PagedList<Booking> page1 = bookingService.findPageAfter(BookingRole.OWNER, owner.getId(),
+                BookingState.ALL.name(), BookingFilter.empty(), null, 2, false);
+        PagedList<Booking> page2 = bookingService.findPageAfter(BookingRole.OWNER, owner.getId(),
+                BookingState.ALL.name(), BookingFilter.empty(),
+                BookingCursor.of(page1.getItems().get(1)).encode(), 2, true);
+
+        Assertions.assertTrue(page1.isHasNext());
+        Assertions.assertEquals(1, page2.getItems().size());
+        Assertions.assertFalse(page2.isHasNext());
+        Assertions.assertEquals(3, page2.getTotal());
     }
 
     private void testFindAllByBookerStateAll(Integer from, Integer size,
@@ -511,8 +956,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now()),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByBooker(
-                booker.getId(), BookingState.ALL.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.BOOKER,
+                booker.getId(), BookingState.ALL.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -528,8 +973,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now().minusDays(1)),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByBooker(
-                booker.getId(), BookingState.CURRENT.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.BOOKER,
+                booker.getId(), BookingState.CURRENT.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -547,8 +992,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now().minusDays(100)),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByBooker(
-                booker.getId(), BookingState.PAST.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.BOOKER,
+                booker.getId(), BookingState.PAST.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -566,8 +1011,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now().plusDays(2)),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByBooker(
-                booker.getId(), BookingState.FUTURE.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.BOOKER,
+                booker.getId(), BookingState.FUTURE.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -581,8 +1026,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now()),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByBooker(
-                booker.getId(), BookingState.WAITING.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.BOOKER,
+                booker.getId(), BookingState.WAITING.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -600,8 +1045,8 @@ public class BookingServiceTest {
         bookingService.approve(booking2.getId(), owner.getId(), false);
         bookingService.approve(booking3.getId(), owner.getId(), false);
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByBooker(
-                booker.getId(), BookingState.REJECTED.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.BOOKER,
+                booker.getId(), BookingState.REJECTED.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -616,8 +1061,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now()),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByOwner(
-                owner.getId(), BookingState.ALL.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.OWNER,
+                owner.getId(), BookingState.ALL.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -634,8 +1079,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now().minusDays(1)),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByOwner(
-                owner.getId(), BookingState.CURRENT.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.OWNER,
+                owner.getId(), BookingState.CURRENT.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -654,8 +1099,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now().minusDays(100)),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByOwner(
-                owner.getId(), BookingState.PAST.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.OWNER,
+                owner.getId(), BookingState.PAST.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -675,8 +1120,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now().plusDays(2)),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByOwner(
-                owner.getId(), BookingState.FUTURE.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.OWNER,
+                owner.getId(), BookingState.FUTURE.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -691,8 +1136,8 @@ public class BookingServiceTest {
         bookingService.create(getDefaultBooking(LocalDateTime.now()),
                 booker.getId(), item.getId());
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByOwner(
-                owner.getId(), BookingState.WAITING.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.OWNER,
+                owner.getId(), BookingState.WAITING.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -711,8 +1156,8 @@ public class BookingServiceTest {
         bookingService.approve(booking2.getId(), owner2.getId(), false);
         bookingService.approve(booking3.getId(), owner.getId(), false);
 
-        Assertions.assertEquals(expSizeList, bookingService.findAllByOwner(
-                owner.getId(), BookingState.REJECTED.name(),
+        Assertions.assertEquals(expSizeList, bookingService.findAll(BookingRole.OWNER,
+                owner.getId(), BookingState.REJECTED.name(), BookingFilter.empty(),
                 from, size).size());
     }
 
@@ -763,6 +1208,12 @@ public class BookingServiceTest {
                 .build();
     }
 
+    private Booking getBookingWithItemId(LocalDateTime start, Item item) {
+        Booking booking = getDefaultBooking(start);
+        booking.setItem(Item.builder().id(item.getId()).build());
+        return booking;
+    }
+
     private Booking getDefaultBooking(LocalDateTime start) {
         return Booking.builder()
                 .start(start)
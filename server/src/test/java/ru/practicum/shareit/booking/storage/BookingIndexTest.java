@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+    Проверка индексов из миграции V2__indexes.sql.
+    Для запросов списков проверяется, что план (EXPLAIN в H2) читает таблицу по нужному индексу.
+    H2, в отличие от PostgreSQL, сам индексирует внешние ключи, и без индексов V2 запросы
+    тоже не читали бы всю таблицу. Поэтому внешние ключи вместе с их индексами удаляются,
+    а таблицы заполняются данными и собирается статистика, чтобы планировщик выбирал индекс
+    по стоимости, а не первый подходящий. Схема меняется, поэтому контекст после теста закрывается
+ */
+@DataJpaTest
+@DirtiesContext
+public class BookingIndexTest {
+    private static final String BOOKINGS = "select b.* from bookings as b ";
+    private static final String NOW = "timestamp '2024-01-01 12:00:00'";
+    private static final String ORDER = " order by b.start_date desc, b.id desc";
+    // Внешний ключ -> таблица
+    private static final Map<String, String> FOREIGN_KEYS = Map.of(
+            "fk_requests_to_users", "requests",
+            "fk_items_to_users", "items",
+            "fk_items_to_requests", "items",
+            "fk_bookings_to_items", "bookings",
+            "fk_bookings_to_users", "bookings",
+            "fk_comments_to_items", "comments",
+            "fk_comments_to_users", "comments");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /*
+        Данные готовятся один раз: изменение схемы и analyze в H2 фиксируют транзакцию,
+        поэтому они не откатываются после теста
+     */
+    @BeforeEach
+    public void beforeEach() {
+        Number bookings = (Number) entityManager.createNativeQuery("select count(*) from bookings")
+                .getSingleResult();
+        if (bookings.longValue() > 0) {
+            return;
+        }
+
+        FOREIGN_KEYS.forEach((foreignKey, table) ->
+                execute("alter table " + table + " drop constraint " + foreignKey));
+
+        // 200 пользователей, у каждого 5 вещей, 100 бронирований и 2-3 запроса
+        execute("insert into users (id, name, email) overriding system value " +
+                "select x, 'user', 'user' || x || '@yandex.ru' from system_range(1, 200)");
+        execute("insert into requests (id, description, user_id, create_date) overriding system value " +
+                "select x, 'request', mod(x, 200) + 1, timestamp '2024-01-01 00:00:00' + x * interval '1' minute " +
+                "from system_range(1, 500)");
+        execute("insert into items (id, name, description, available, owner_id, request_id) " +
+                "select x, 'item', 'description', true, mod(x, 200) + 1, mod(x, 500) + 1 " +
+                "from system_range(1, 1000)");
+        execute("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "select x, timestamp '2024-01-01 00:00:00' + x * interval '1' hour, " +
+                "timestamp '2024-01-01 00:00:00' + (x + 2) * interval '1' hour, mod(x, 1000) + 1, mod(x, 200) + 1, " +
+                "case mod(x, 3) when 0 then 'WAITING' when 1 then 'APPROVED' else 'REJECTED' end " +
+                "from system_range(1, 20000)");
+        execute("insert into comments (id, text, item_id, author_id, create_date) " +
+                "select x, 'text', mod(x, 1000) + 1, mod(x, 200) + 1, timestamp '2024-01-01 00:00:00' " +
+                "from system_range(1, 3000)");
+        execute("analyze");
+    }
+
+    /*
+        Состав индексов
+     */
+
+    @Test
+    public void testBookingIndexes() {
+        assertIndexColumns("ix_bookings_booker_start", "booker_id", "start_date", "id");
+        assertIndexColumns("ix_bookings_booker_end", "booker_id", "end_date");
+        assertIndexColumns("ix_bookings_booker_status_start", "booker_id", "status", "start_date");
+        assertIndexColumns("ix_bookings_item_start", "item_id", "start_date", "id");
+        assertIndexColumns("ix_bookings_item_status_end", "item_id", "status", "end_date", "start_date");
+    }
+
+    @Test
+    public void testOtherIndexes() {
+        assertIndexColumns("ix_items_owner", "owner_id");
+        assertIndexColumns("ix_items_request", "request_id");
+        assertIndexColumns("ix_requests_user_created", "user_id", "create_date");
+        assertIndexColumns("ix_comments_item", "item_id");
+    }
+
+    /*
+        Планы запросов. Списки бронирований сортируются так же, как в BookingRepositoryCustomImpl
+     */
+
+    @Test
+    public void testBookerQueries() {
+        // H2 не учитывает сортировку при выборе между индексами по booker_id, поэтому для ALL
+        // проверяется только чтение по индексу: других индексов по booker_id, кроме V2, нет
+        assertNoTableScan(BOOKINGS + "where b.booker_id = 1" + ORDER);
+        assertUsesIndex(BOOKINGS + "where b.booker_id = 1 and b.start_date < " + NOW +
+                " and b.end_date > " + NOW + ORDER, "ix_bookings_booker_start");
+        assertUsesIndex(BOOKINGS + "where b.booker_id = 1 and b.start_date > " + NOW + ORDER,
+                "ix_bookings_booker_start");
+        assertUsesIndex(BOOKINGS + "where b.booker_id = 1 and b.end_date < " + NOW + ORDER,
+                "ix_bookings_booker_end");
+        assertUsesIndex(BOOKINGS + "where b.booker_id = 1 and b.status = 'WAITING'" + ORDER,
+                "ix_bookings_booker_status_start");
+    }
+
+    @Test
+    public void testOwnerQueries() {
+        String ownerItems = BOOKINGS + "join items as it on it.id = b.item_id where it.owner_id = 1";
+
+        assertUsesIndex(ownerItems + ORDER, "ix_items_owner", "ix_bookings_item_start");
+        assertUsesIndex(ownerItems + " and b.status = 'WAITING'" + ORDER,
+                "ix_items_owner", "ix_bookings_item_status_end");
+    }
+
+    @Test
+    public void testItemQueries() {
+        assertUsesIndex(BOOKINGS + "where b.item_id in (1, 2, 3) and b.status = 'APPROVED' " +
+                "and b.start_date <> " + NOW, "ix_bookings_item_status_end");
+        assertUsesIndex("select it.* from items as it where it.owner_id = 1 order by it.id", "ix_items_owner");
+        assertUsesIndex("select it.* from items as it where it.request_id in (1, 2, 3)", "ix_items_request");
+        assertUsesIndex("select c.* from comments as c where c.item_id in (1, 2, 3)", "ix_comments_item");
+        assertUsesIndex("select r.* from requests as r where r.user_id = 1 order by r.create_date desc",
+                "ix_requests_user_created");
+    }
+
+    // Проверка бронирования перед добавлением комментария: подходит любой индекс по вещи
+    @Test
+    public void testBookerItemQuery() {
+        assertNoTableScan(BOOKINGS + "where b.booker_id = 1 and b.item_id = 2 and b.status = 'APPROVED' " +
+                "and b.start_date < " + NOW);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = getPlan(sql);
+
+        Assertions.assertFalse(plan.contains("tableScan"), "Запрос читает всю таблицу:\n" + plan);
+    }
+
+    // Таблицы читаются по индексам indexes: H2 пишет имя индекса в плане как /* PUBLIC.<ИМЯ>: ... */
+    private void assertUsesIndex(String sql, String... indexes) {
+        String plan = getPlan(sql);
+
+        for (String index : indexes) {
+            Assertions.assertTrue(plan.contains("/* PUBLIC." + index.toUpperCase() + ":"),
+                    "Запрос не использует индекс " + index + ":\n" + plan);
+        }
+    }
+
+    private String getPlan(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult());
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertIndexColumns(String index, String... columns) {
+        List<Object> res = entityManager.createNativeQuery("select column_name " +
+                        "from information_schema.index_columns " +
+                        "where lower(index_name) = ?1 " +
+                        "order by ordinal_position")
+                .setParameter(1, index)
+                .getResultList();
+
+        Assertions.assertEquals(List.of(columns), res.stream()
+                .map(column -> String.valueOf(column).toLowerCase())
+                .collect(Collectors.toList()), "Индекс " + index);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = addUser();
+        booker = addUser();
+        now = LocalDateTime.now();
+    }
+
+    /*
+        Тесты на метод findLastAndNextApproved
+     */
+
+    @Test
+    public void testFindLastAndNextApprovedForSeveralItems() {
+        Item item1 = addItem(owner);
+        Item item2 = addItem(owner);
+
+        addBooking(item1, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking last1 = addBooking(item1, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Booking next1 = addBooking(item1, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        addBooking(item1, now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+
+        Booking current2 = addBooking(item2, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        addBooking(item2, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+
+        List<Booking> bookings = bookingRepository.findLastAndNextApproved(
+                List.of(item1.getId(), item2.getId()), owner.getId(), now);
+
+        Assertions.assertEquals(Set.of(last1.getId(), next1.getId(), current2.getId()), getIds(bookings));
+    }
+
+    @Test
+    public void testFindLastAndNextApprovedOnlyApproved() {
+        Item item = addItem(owner);
+
+        Booking last = addBooking(item, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        addBooking(item, now.minusDays(3), now.minusDays(2), BookingStatus.REJECTED);
+        addBooking(item, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        List<Booking> bookings = bookingRepository.findLastAndNextApproved(
+                List.of(item.getId()), owner.getId(), now);
+
+        Assertions.assertEquals(Set.of(last.getId()), getIds(bookings));
+    }
+
+    @Test
+    public void testFindLastAndNextApprovedNotOwner() {
+        Item item = addItem(owner);
+
+        addBooking(item, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        addBooking(item, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+
+        Assertions.assertTrue(bookingRepository.findLastAndNextApproved(
+                List.of(item.getId()), booker.getId(), now).isEmpty());
+    }
+
+    private Set<Long> getIds(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toSet());
+    }
+
+    private Booking addBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    private Item addItem(User user) {
+        return itemRepository.save(Item.builder()
+                .name("Name item")
+                .description("Description item")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
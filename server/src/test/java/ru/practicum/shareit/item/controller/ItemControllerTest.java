@@ -18,9 +18,13 @@ import ru.practicum.shareit.TestUtil;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemViewService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -30,6 +34,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -42,6 +48,12 @@ public class ItemControllerTest {
 
     private ItemServiceImpl itemService;
 
+    private ItemImportService itemImportService;
+
+    private ItemAvailabilityService itemAvailabilityService;
+
+    private ItemViewService itemViewService;
+
     private ItemController itemController;
 
     private User user;
@@ -54,7 +66,14 @@ public class ItemControllerTest {
     void setUp() {
         itemService = mock(ItemServiceImpl.class);
 
-        itemController = new ItemController(itemService);
+        itemImportService = mock(ItemImportService.class);
+
+        itemAvailabilityService = mock(ItemAvailabilityService.class);
+
+        itemViewService = mock(ItemViewService.class);
+
+        itemController = new ItemController(itemService, itemImportService, itemAvailabilityService,
+                itemViewService);
 
         mockMvc = MockMvcBuilders
                 .standaloneSetup(itemController)
@@ -78,6 +97,21 @@ public class ItemControllerTest {
         Assertions.assertNotNull(res);
     }
 
+    @Test
+    public void testCreateAllItemsSuccess() throws Exception {
+        when(itemService.createAll(any(), any()))
+                .thenReturn(List.of(item, item));
+
+        CreateItemDto withRequest = getDefaultCreateItemDto();
+        withRequest.setRequestId(itemRequest.getId());
+        List<ItemDto> res = sendRequestAddAllItems(List.of(getDefaultCreateItemDto(), withRequest), user.getId());
+
+        Assertions.assertEquals(2, res.size());
+        verify(itemService, times(1)).createAll(eq(user.getId()), argThat(items ->
+                items.size() == 2 && items.get(0).getRequest() == null
+                        && items.get(1).getRequest().getId().equals(itemRequest.getId())));
+    }
+
     @Test
     public void testUpdateItemSuccess() throws Exception {
         when(itemService.update(any(), any(), any(), any()))
@@ -93,12 +127,13 @@ public class ItemControllerTest {
     public void testGetItemSuccess() throws Exception {
         item = addBookingsAndComments(item);
 
-        when(itemService.getInfo(any(), any()))
-                .thenReturn(item);
+        when(itemViewService.getItemDto(item.getId(), user.getId()))
+                .thenReturn(ItemMapper.toItemDto(item));
 
         ItemDto res = sendRequestGetItemById(item.getId(), user.getId());
 
         Assertions.assertNotNull(res);
+        Assertions.assertEquals(item.getId(), res.getId());
     }
 
     @Test
@@ -150,6 +185,56 @@ public class ItemControllerTest {
                 .delete(any(Long.class), any(Long.class));
     }
 
+    @Test
+    public void testImportItemsSuccess() throws Exception {
+        ItemImportResultDto result = ItemImportResultDto.builder()
+                .imported(2)
+                .failed(1)
+                .errors(List.of(new ItemImportErrorDto(3, 3, "Не задано название вещи")))
+                .build();
+        when(itemImportService.importItems(eq(user.getId()), any()))
+                .thenReturn(result);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(user.getId()));
+
+        MvcResult res = mockMvc.perform(post("/items/import")
+                        .headers(headers)
+                        .content("{}\n{}\n{}\n")
+                        .contentType(ItemImportService.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ItemImportResultDto resultDto = objectMapper.readValue(res.getResponse().getContentAsByteArray(),
+                ItemImportResultDto.class);
+        Assertions.assertEquals(result, resultDto);
+    }
+
+    @Test
+    public void testGetAvailabilitySuccess() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(item.getId())
+                .from(from)
+                .to(to)
+                .available(true)
+                .free(List.of(new AvailabilityIntervalDto(from, to)))
+                .build();
+        when(itemAvailabilityService.getAvailability(item.getId(), user.getId(), from, to))
+                .thenReturn(availability);
+
+        MvcResult res = mockMvc.perform(get("/items/" + item.getId() + "/availability")
+                        .header(X_SHARER_USER_ID, user.getId())
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Assertions.assertEquals(availability, objectMapper.readValue(res.getResponse().getContentAsString(),
+                ItemAvailabilityDto.class));
+    }
+
     private ItemDto sendRequestAddItem(CreateItemDto createItemDto, long userId)
             throws Exception {
         HttpHeaders headers = new HttpHeaders();
@@ -167,6 +252,21 @@ public class ItemControllerTest {
     }
 
 
+    private List<ItemDto> sendRequestAddAllItems(List<CreateItemDto> createItemDtos, long userId)
+            throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_SHARER_USER_ID, String.valueOf(userId));
+
+        MvcResult res = mockMvc.perform(post("/items/batch")
+                        .headers(headers)
+                        .content(objectMapper.writeValueAsString(createItemDtos))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(res.getResponse().getContentAsString(),
+                ArrayList.class);
+    }
+
     private List<ItemDto> sendRequestFindAllItemsByUserId(
             long userId, Integer from, Integer size) throws Exception {
         HttpHeaders headers = new HttpHeaders();
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.exception.NotFoundException;
+import ru.practicum.shareit.util.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureTestDatabase
+public class ItemAvailabilityServiceTest {
+
+    @Autowired
+    private ItemAvailabilityService itemAvailabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime from;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = addUser();
+        booker = addUser();
+        item = addItem(owner);
+        from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testGetAvailabilityBusyAndFreeIntervals() {
+        // Начинается до окна - обрезается по началу окна
+        addBooking(from.minusDays(2), from.plusDays(1), BookingStatus.APPROVED);
+        addBooking(from.plusDays(3), from.plusDays(5), BookingStatus.APPROVED);
+        // Вплотную к предыдущему - свободного интервала между ними нет
+        addBooking(from.plusDays(5), from.plusDays(6), BookingStatus.APPROVED);
+        // Не подтвержденные бронирования не занимают вещь
+        addBooking(from.plusDays(7), from.plusDays(8), BookingStatus.WAITING);
+        addBooking(from.plusDays(7), from.plusDays(8), BookingStatus.REJECTED);
+        // Заканчивается после окна - обрезается по концу окна
+        addBooking(from.plusDays(9), from.plusDays(20), BookingStatus.APPROVED);
+        // За пределами окна
+        addBooking(from.plusDays(11), from.plusDays(12), BookingStatus.APPROVED);
+
+        ItemAvailabilityDto res = itemAvailabilityService.getAvailability(
+                item.getId(), booker.getId(), from, from.plusDays(10));
+
+        Assertions.assertEquals(item.getId(), res.getItemId());
+        Assertions.assertTrue(res.getAvailable());
+        Assertions.assertEquals(List.of(
+                interval(from, from.plusDays(1)),
+                interval(from.plusDays(3), from.plusDays(5)),
+                interval(from.plusDays(5), from.plusDays(6)),
+                interval(from.plusDays(9), from.plusDays(10))), res.getBusy());
+        Assertions.assertEquals(List.of(
+                interval(from.plusDays(1), from.plusDays(3)),
+                interval(from.plusDays(6), from.plusDays(9))), res.getFree());
+    }
+
+    @Test
+    public void testGetAvailabilityNoBookings() {
+        ItemAvailabilityDto res = itemAvailabilityService.getAvailability(
+                item.getId(), booker.getId(), from, from.plusDays(10));
+
+        Assertions.assertTrue(res.getBusy().isEmpty());
+        Assertions.assertEquals(List.of(interval(from, from.plusDays(10))), res.getFree());
+    }
+
+    @Test
+    public void testGetAvailabilityDefaultWindow() {
+        ItemAvailabilityDto res = itemAvailabilityService.getAvailability(
+                item.getId(), booker.getId(), from, null);
+
+        Assertions.assertEquals(from.plusDays(30), res.getTo());
+    }
+
+    @Test
+    public void testGetAvailabilityFailed() {
+        Assertions.assertThrows(ValidationException.class, () -> itemAvailabilityService.getAvailability(
+                item.getId(), booker.getId(), from, from));
+        Assertions.assertThrows(ValidationException.class, () -> itemAvailabilityService.getAvailability(
+                item.getId(), booker.getId(), from, from.plusYears(2)));
+        Assertions.assertThrows(NotFoundException.class, () -> itemAvailabilityService.getAvailability(
+                item.getId() + 100, booker.getId(), from, null));
+        Assertions.assertThrows(NotFoundException.class, () -> itemAvailabilityService.getAvailability(
+                item.getId(), Long.MAX_VALUE, from, null));
+    }
+
+    private AvailabilityIntervalDto interval(LocalDateTime start, LocalDateTime end) {
+        return new AvailabilityIntervalDto(start, end);
+    }
+
+    private void addBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    private Item addItem(User user) {
+        return itemRepository.save(Item.builder()
+                .name("Name item")
+                .description("Description item")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
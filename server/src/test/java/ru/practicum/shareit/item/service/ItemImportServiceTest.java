@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.exception.NotFoundException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "shareit.import.batch-size=2")
+@AutoConfigureTestDatabase
+public class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = addUser();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testImportNdjsonSeveralBatchesSuccess() {
+        ItemRequest itemRequest = addItemRequest(addUser());
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), toStream(
+                getItemJson("Дрель", null) + "\n" +
+                        getItemJson("Пила", itemRequest.getId()) + "\n" +
+                        "\n" +
+                        getItemJson("Молоток", null) + "\n"));
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(0, result.getFailed());
+        Assertions.assertTrue(result.getErrors().isEmpty());
+
+        List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(owner.getId());
+        Assertions.assertEquals(List.of("Дрель", "Пила", "Молоток"),
+                items.stream().map(Item::getName).collect(Collectors.toList()));
+        Assertions.assertEquals(itemRequest.getId(), items.get(1).getRequest().getId());
+    }
+
+    @Test
+    public void testImportJsonArraySuccess() {
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), toStream(
+                "[" + getItemJson("Дрель", null) + ",\n" + getItemJson("Пила", null) + "]"));
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(0, result.getFailed());
+        Assertions.assertEquals(2, itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()).size());
+    }
+
+    @Test
+    public void testImportInvalidRecordsReportedByLine() {
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), toStream(
+                getItemJson("Дрель", null) + "\n" +
+                        "{\"description\":\"Без названия\",\"available\":true}\n" +
+                        "{\"name\":\"Пила\",\"description\":\"Описание\",\"available\":\"maybe\"}\n" +
+                        getItemJson("Рубанок", Long.MAX_VALUE) + "\n" +
+                        getItemJson("Молоток", null) + "\n"));
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(3, result.getFailed());
+        Assertions.assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .sorted()
+                .collect(Collectors.toList()));
+        Assertions.assertTrue(result.getErrors().stream()
+                .filter(error -> error.getLine() == 2L)
+                .anyMatch(error -> error.getMessage().startsWith("name: ")));
+        Assertions.assertEquals(List.of("Дрель", "Молоток"),
+                itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()).stream()
+                        .map(Item::getName)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testImportMalformedJsonStopsImport() {
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), toStream(
+                getItemJson("Дрель", null) + "\n" +
+                        "{\"name\":\"Пила\",\n" +
+                        getItemJson("Молоток", null) + "\n"));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(1, itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()).size());
+    }
+
+    @Test
+    public void testImportNotFoundUser() {
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemImportService.importItems(Long.MAX_VALUE, toStream(getItemJson("Дрель", null))));
+    }
+
+    private InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getItemJson(String name, Long requestId) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Описание\",\"available\":true" +
+                (requestId == null ? "" : ",\"requestId\":" + requestId) + "}";
+    }
+
+    private ItemRequest addItemRequest(User requester) {
+        return itemRequestRepository.save(ItemRequest.builder()
+                .description("Новый запрос на вещь.")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
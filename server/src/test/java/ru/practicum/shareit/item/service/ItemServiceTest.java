@@ -7,22 +7,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.TestUtil;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 import ru.practicum.shareit.util.exception.NotFoundException;
+import ru.practicum.shareit.util.metrics.SqlStatementCounter;
 import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.page.PagedList;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @AutoConfigureTestDatabase
@@ -88,8 +98,8 @@ public class ItemServiceTest {
         Assertions.assertEquals(item.getName(), itemRes.getName());
         Assertions.assertEquals(item.getDescription(), itemRes.getDescription());
         Assertions.assertEquals(item.getAvailable(), itemRes.getAvailable());
-        Assertions.assertEquals(itemRequestRepository.findById(itemRequest.getId()).get(),
-                itemRes.getRequest());
+        Assertions.assertEquals(itemRequest.getId(),
+                itemRes.getRequest().getId());
         Assertions.assertEquals(item.getId(), itemRes.getId());
     }
 
@@ -105,6 +115,56 @@ public class ItemServiceTest {
                 () -> itemService.create(owner.getId(), 1L, getDefaultItem()));
     }
 
+    /*
+        Тесты на метод List<Item> createAll(Long userId, List<Item> items)
+     */
+
+    @Test
+    public void testCreateAllSuccess() {
+        User requester = addUser();
+        ItemRequest itemRequest = addItemRequest(requester);
+        Item item2 = getDefaultUpdateItem();
+        item2.setRequest(ItemRequest.builder().id(itemRequest.getId()).build());
+
+        List<Item> res = itemService.createAll(owner.getId(), List.of(item, item2));
+
+        Assertions.assertEquals(2, res.size());
+        Assertions.assertNotNull(res.get(0).getId());
+        Assertions.assertNull(res.get(0).getRequest());
+        Assertions.assertEquals(itemRequest.getId(), res.get(1).getRequest().getId());
+        Assertions.assertEquals(requester.getId(), res.get(1).getRequest().getRequester().getId());
+        Assertions.assertEquals(2, itemService.findAllByOwner(owner.getId(), null, null).size());
+    }
+
+    @Test
+    public void testCreateAllBatchInserts() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(getDefaultItem());
+        }
+
+        SqlStatementCounter.start();
+        itemService.createAll(owner.getId(), items);
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        // 120 вставок уходят тремя пачками по hibernate.jdbc.batch_size = 50
+        long inserts = counter.getFingerprints().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("insert into items"))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+        Assertions.assertTrue(inserts >= 1 && inserts <= 3, "Вставок: " + inserts);
+        Assertions.assertEquals(120, itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()).size());
+    }
+
+    @Test
+    public void testCreateAllFailedNoRequest() {
+        item.setRequest(ItemRequest.builder().id(1000L).build());
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemService.createAll(owner.getId(), List.of(item)));
+        Assertions.assertEquals(0, itemRepository.count());
+    }
+
     /*
         Тесты на метод Item update(Long itemId, Long userId, Long requestId, Item item)
      */
@@ -121,8 +181,8 @@ public class ItemServiceTest {
         Assertions.assertEquals(patchItem.getName(), updatedItem.getName());
         Assertions.assertEquals(patchItem.getDescription(), updatedItem.getDescription());
         Assertions.assertEquals(createItem.getAvailable(), updatedItem.getAvailable());
-        Assertions.assertEquals(itemRequestRepository.findById(itemRequest.getId()).get(),
-                updatedItem.getRequest());
+        Assertions.assertEquals(itemRequest.getId(),
+                updatedItem.getRequest().getId());
         Assertions.assertNotNull(createItem.getId());
     }
 
@@ -143,8 +203,8 @@ public class ItemServiceTest {
         Assertions.assertEquals(createItem.getName(), updatedItem.getName());
         Assertions.assertEquals(createItem.getDescription(), updatedItem.getDescription());
         Assertions.assertEquals(createItem.getAvailable(), updatedItem.getAvailable());
-        Assertions.assertEquals(itemRequestRepository.findById(itemRequest.getId()).get(),
-                updatedItem.getRequest());
+        Assertions.assertEquals(itemRequest.getId(),
+                updatedItem.getRequest().getId());
         Assertions.assertNotNull(createItem.getId());
     }
 
@@ -184,13 +244,13 @@ public class ItemServiceTest {
         Assertions.assertEquals(itemCreate.getName(), itemRes.getName());
         Assertions.assertEquals(itemCreate.getDescription(), itemRes.getDescription());
         Assertions.assertEquals(itemCreate.getAvailable(), itemRes.getAvailable());
-        Assertions.assertEquals(itemRequestRepository.findById(itemRequest.getId()).get(),
-                itemRes.getRequest());
+        Assertions.assertEquals(itemRequest.getId(),
+                itemRes.getRequest().getId());
         Assertions.assertEquals(itemCreate.getId(), itemRes.getId());
-        Assertions.assertEquals(bookingRepository.findById(lastBooking.getId()).get(),
-                itemRes.getLastBooking());
-        Assertions.assertEquals(bookingRepository.findById(nextBooking.getId()).get(),
-                itemRes.getNextBooking());
+        Assertions.assertEquals(BookingMapper.toBookingForItemDto(bookingRepository.findById(lastBooking.getId()).get()),
+                BookingMapper.toBookingForItemDto(itemRes.getLastBooking()));
+        Assertions.assertEquals(BookingMapper.toBookingForItemDto(bookingRepository.findById(nextBooking.getId()).get()),
+                BookingMapper.toBookingForItemDto(itemRes.getNextBooking()));
         Assertions.assertTrue(itemRes.getComments().isEmpty());
     }
 
@@ -233,11 +293,11 @@ public class ItemServiceTest {
         Assertions.assertEquals(itemCreate.getName(), itemRes.getName());
         Assertions.assertEquals(itemCreate.getDescription(), itemRes.getDescription());
         Assertions.assertEquals(itemCreate.getAvailable(), itemRes.getAvailable());
-        Assertions.assertEquals(itemRequestRepository.findById(itemRequest.getId()).get(),
-                itemRes.getRequest());
+        Assertions.assertEquals(itemRequest.getId(),
+                itemRes.getRequest().getId());
         Assertions.assertEquals(itemCreate.getId(), itemRes.getId());
-        Assertions.assertEquals(bookingRepository.findById(lastBooking.getId()).get(),
-                itemRes.getLastBooking());
+        Assertions.assertEquals(BookingMapper.toBookingForItemDto(bookingRepository.findById(lastBooking.getId()).get()),
+                BookingMapper.toBookingForItemDto(itemRes.getLastBooking()));
         Assertions.assertNull(itemRes.getNextBooking());
         Assertions.assertTrue(itemRes.getComments().isEmpty());
     }
@@ -350,6 +410,59 @@ public class ItemServiceTest {
                 owner.getId(), 2, 5).size());
     }
 
+    @Test
+    public void testFindAllByOwnerWithBookingsAndComments() {
+        User booker = addUser();
+        Item item1 = itemService.create(owner.getId(), null, getDefaultItem());
+        Item item2 = itemService.create(owner.getId(), null, getDefaultItem());
+        Booking lastBooking1 = bookingRepository.save(
+                getDefaultBooking(item1, booker, LocalDateTime.now().minusDays(20)));
+        Booking currentBooking1 = bookingRepository.save(
+                getDefaultBooking(item1, booker, LocalDateTime.now().minusDays(1)));
+        Booking nextBooking1 = bookingRepository.save(
+                getDefaultBooking(item1, booker, LocalDateTime.now().plusDays(12)));
+        bookingRepository.save(
+                getDefaultBooking(item1, booker, LocalDateTime.now().plusDays(30)));
+        Booking nextBooking2 = bookingRepository.save(
+                getDefaultBooking(item2, booker, LocalDateTime.now().plusDays(5)));
+        itemService.addComment(item1.getId(), booker.getId(), getNewComment());
+
+        List<Item> items = itemService.findAllByOwner(owner.getId(), null, null);
+
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals(item1.getId(), items.get(0).getId());
+        Assertions.assertEquals(currentBooking1.getId(), items.get(0).getLastBooking().getId());
+        Assertions.assertEquals(nextBooking1.getId(), items.get(0).getNextBooking().getId());
+        Assertions.assertEquals(1, items.get(0).getComments().size());
+        Assertions.assertEquals(item2.getId(), items.get(1).getId());
+        Assertions.assertNull(items.get(1).getLastBooking());
+        Assertions.assertEquals(nextBooking2.getId(), items.get(1).getNextBooking().getId());
+        Assertions.assertTrue(items.get(1).getComments().isEmpty());
+        Assertions.assertNotEquals(lastBooking1.getId(), items.get(0).getLastBooking().getId());
+    }
+
+    // Вещи списка читаются проекцией одним запросом, ответ совпадает с просмотром каждой вещи
+    @Test
+    public void testFindAllByOwnerSingleQuerySameAsEntities() {
+        ItemRequest itemRequest = addItemRequest(addUser());
+        itemService.create(owner.getId(), itemRequest.getId(), getDefaultItem());
+        itemService.create(owner.getId(), null, getDefaultItem());
+
+        SqlStatementCounter.start();
+        List<ItemView> views = itemRepository.findViewsByOwnerId(owner.getId(), PageRequest.of(0, 10));
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        Assertions.assertEquals(1, counter.getCount());
+        Assertions.assertEquals(2, views.size());
+        Assertions.assertEquals(itemRequest.getId(), views.get(0).getRequestId());
+        Assertions.assertNull(views.get(1).getRequestId());
+
+        for (Item res : itemService.findAllByOwner(owner.getId(), null, null)) {
+            Assertions.assertEquals(ItemMapper.toItemDto(itemService.getInfo(res.getId(), owner.getId())),
+                    ItemMapper.toItemDto(res));
+        }
+    }
+
     @Test
     public void testFindAllByOwnerNoUser() {
         Assertions.assertThrows(NotFoundException.class,
@@ -467,6 +580,66 @@ public class ItemServiceTest {
                 () -> itemService.searchItems(owner.getId(), "name", 1, null));
     }
 
+    /*
+        Тесты на списки в обертке: findPageByOwner(...), searchItemsPage(...)
+     */
+
+    @Test
+    public void testFindPageByOwnerHasNextAndTotal() {
+        for (int i = 0; i < 3; i++) {
+            itemService.create(owner.getId(), null, getDefaultItem());
+        }
+
+        PagedList<Item> page1 = itemService.findPageByOwner(owner.getId(), 0, 2, true);
+        PagedList<Item> page2 = itemService.findPageByOwner(owner.getId(), 2, 2, true);
+
+        Assertions.assertEquals(2, page1.getItems().size());
+        Assertions.assertTrue(page1.isHasNext());
+        Assertions.assertEquals(3, page1.getTotal());
+        Assertions.assertTrue(page1.getTotalExact());
+        Assertions.assertEquals(1, page2.getItems().size());
+        Assertions.assertFalse(page2.isHasNext());
+        Assertions.assertEquals(3, page2.getTotal());
+    }
+
+    // Позиция за концом списка: пустая страница, общее количество считается запросом
+    @Test
+    public void testFindPageByOwnerAfterEnd() {
+        itemService.create(owner.getId(), null, getDefaultItem());
+
+        PagedList<Item> page = itemService.findPageByOwner(owner.getId(), 5, 2, true);
+
+        Assertions.assertTrue(page.getItems().isEmpty());
+        Assertions.assertFalse(page.isHasNext());
+        Assertions.assertEquals(1, page.getTotal());
+    }
+
+    @Test
+    public void testSearchItemsPageHasNextAndTotal() {
+        User user = addUser();
+        Item itemSave = itemService.create(owner.getId(), null, getDefaultItem());
+        itemService.create(owner.getId(), null, getDefaultItem());
+        itemService.create(owner.getId(), null, getDefaultItem());
+
+        PagedList<Item> page = itemService.searchItemsPage(user.getId(), itemSave.getName(), 1, 1, true);
+        PagedList<Item> all = itemService.searchItemsPage(user.getId(), itemSave.getName(), null, null, false);
+
+        Assertions.assertEquals(1, page.getItems().size());
+        Assertions.assertTrue(page.isHasNext());
+        Assertions.assertEquals(3, page.getTotal());
+        Assertions.assertEquals(3, all.getItems().size());
+        Assertions.assertFalse(all.isHasNext());
+        Assertions.assertNull(all.getTotal());
+    }
+
+    @Test
+    public void testSearchItemsPageEmptyText() {
+        PagedList<Item> page = itemService.searchItemsPage(owner.getId(), "", 0, 2, true);
+
+        Assertions.assertTrue(page.getItems().isEmpty());
+        Assertions.assertEquals(0, page.getTotal());
+    }
+
     private void checkSearchItems(int expSize, Integer from, Integer size) {
         User user = addUser();
         Item itemSave = itemService.create(owner.getId(), null, getDefaultItem());
@@ -556,7 +729,8 @@ public class ItemServiceTest {
         return ItemRequest.builder()
                 .description("Новый запрос на вещь.")
                 .requester(requester)
-                .created(LocalDateTime.now())
+                // Точность столбца базы данных: сохраненный запрос попадает в кэш второго уровня как есть
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
     }
 
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
+import ru.practicum.shareit.item.storage.ItemDtoCacheEntry;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.exception.NotFoundException;
+import ru.practicum.shareit.util.metrics.SqlStatementCounter;
+
+import java.time.LocalDateTime;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureTestDatabase
+public class ItemViewServiceTest {
+
+    @Autowired
+    private ItemViewService itemViewService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemDtoCache itemDtoCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = addUser();
+        booker = addUser();
+        item = itemRepository.save(Item.builder()
+                .name("Name item")
+                .description("Description item")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testGetItemDtoFromCache() {
+        itemViewService.getItemDto(item.getId(), booker.getId());
+
+        SqlStatementCounter.start();
+        ItemDto res = itemViewService.getItemDto(item.getId(), booker.getId());
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        Assertions.assertEquals(item.getName(), res.getName());
+        Assertions.assertEquals(0, counter.getCount());
+    }
+
+    @Test
+    public void testGetItemDtoOwnerAndGuestViews() {
+        Booking next = addBooking(LocalDateTime.now().plusDays(1), BookingStatus.APPROVED);
+
+        // Оба представления хранятся в одной записи и не подменяют друг друга
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertEquals(next.getId(),
+                    itemViewService.getItemDto(item.getId(), owner.getId()).getNextBooking().getId());
+            Assertions.assertNull(itemViewService.getItemDto(item.getId(), booker.getId()).getNextBooking());
+        }
+    }
+
+    @Test
+    public void testEvictAfterItemUpdate() {
+        itemViewService.getItemDto(item.getId(), booker.getId());
+
+        itemService.update(item.getId(), owner.getId(), null, Item.builder().name("New name").build());
+
+        Assertions.assertEquals("New name", itemViewService.getItemDto(item.getId(), booker.getId()).getName());
+    }
+
+    // Значение, собранное до изменения вещи и сохраняемое после удаления записи, в кэш не попадает
+    @Test
+    public void testStalePutAfterEvictRejected() {
+        itemViewService.getItemDto(item.getId(), booker.getId());
+        ItemDtoCacheEntry stale = itemDtoCache.get(item.getId()).get();
+
+        itemService.update(item.getId(), owner.getId(), null, Item.builder().name("New name").build());
+        itemDtoCache.put(item.getId(), stale);
+
+        Assertions.assertEquals("New name", itemViewService.getItemDto(item.getId(), booker.getId()).getName());
+    }
+
+    @Test
+    public void testEvictAfterBookingCreateAndApprove() {
+        Assertions.assertNull(itemViewService.getItemDto(item.getId(), owner.getId()).getNextBooking());
+
+        Booking booking = bookingService.create(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), booker.getId(), item.getId());
+        Assertions.assertNull(itemViewService.getItemDto(item.getId(), owner.getId()).getNextBooking());
+
+        bookingService.approve(booking.getId(), owner.getId(), true);
+
+        Assertions.assertEquals(booking.getId(),
+                itemViewService.getItemDto(item.getId(), owner.getId()).getNextBooking().getId());
+    }
+
+    @Test
+    public void testEvictAfterAddComment() {
+        addBooking(LocalDateTime.now().minusDays(2), BookingStatus.APPROVED);
+        Assertions.assertTrue(itemViewService.getItemDto(item.getId(), booker.getId()).getComments().isEmpty());
+
+        itemService.addComment(item.getId(), booker.getId(), Comment.builder().text("Comment").build());
+
+        Assertions.assertEquals(1, itemViewService.getItemDto(item.getId(), booker.getId()).getComments().size());
+    }
+
+    @Test
+    public void testEvictAfterOwnerAndAuthorUpdate() {
+        addBooking(LocalDateTime.now().minusDays(2), BookingStatus.APPROVED);
+        itemService.addComment(item.getId(), booker.getId(), Comment.builder().text("Comment").build());
+        itemViewService.getItemDto(item.getId(), booker.getId());
+
+        userService.update(owner.getId(), User.builder().name("New owner").build());
+        Assertions.assertEquals("New owner", itemViewService.getItemDto(item.getId(), booker.getId())
+                .getOwner().getName());
+
+        userService.update(booker.getId(), User.builder().name("New author").build());
+        Assertions.assertEquals("New author", itemViewService.getItemDto(item.getId(), booker.getId())
+                .getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    public void testOwnerViewExpiresWhenNextBookingStarts() {
+        Booking next = addBooking(LocalDateTime.now().plusDays(1), BookingStatus.APPROVED);
+        itemViewService.getItemDto(item.getId(), owner.getId());
+
+        // Следующее бронирование уже началось: представление владельца в кэше устарело
+        itemDtoCache.put(item.getId(), itemDtoCache.get(item.getId()).get().toBuilder()
+                .ownerViewValidUntil(LocalDateTime.now().minusSeconds(1))
+                .build());
+        next.setStart(LocalDateTime.now().minusHours(1));
+        bookingRepository.save(next);
+
+        ItemDto res = itemViewService.getItemDto(item.getId(), owner.getId());
+        Assertions.assertEquals(next.getId(), res.getLastBooking().getId());
+        Assertions.assertNull(res.getNextBooking());
+    }
+
+    @Test
+    public void testGetItemDtoFailed() {
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemViewService.getItemDto(item.getId(), Long.MAX_VALUE));
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemViewService.getItemDto(item.getId() + 100, owner.getId()));
+    }
+
+    private Booking addBooking(LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .build());
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
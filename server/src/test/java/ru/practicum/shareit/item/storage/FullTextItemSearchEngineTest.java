@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FullTextItemSearchEngineTest {
+
+    @Test
+    public void testToTsQueryOneWord() {
+        Assertions.assertEquals("дрель:*", FullTextItemSearchEngine.toTsQuery("Дрель"));
+    }
+
+    @Test
+    public void testToTsQuerySeveralWords() {
+        Assertions.assertEquals("дрель:* & аккум:*",
+                FullTextItemSearchEngine.toTsQuery("  Дрель,  аккум "));
+    }
+
+    @Test
+    public void testToTsQuerySpecialSymbols() {
+        Assertions.assertEquals("a:* & b:*",
+                FullTextItemSearchEngine.toTsQuery("a & !b:*"));
+    }
+
+    @Test
+    public void testToTsQueryNoWords() {
+        Assertions.assertEquals("", FullTextItemSearchEngine.toTsQuery("!&|"));
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.item.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.page.TotalCount;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "shareit.search.engine=memory")
+@AutoConfigureTestDatabase
+public class InMemoryItemSearchEngineTest {
+
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        ((InMemoryItemSearchEngine) itemSearchEngine).rebuild();
+    }
+
+    @Test
+    public void testEngineSelectedByProperty() {
+        Assertions.assertTrue(itemSearchEngine instanceof InMemoryItemSearchEngine);
+    }
+
+    @Test
+    public void testSearchByNameAndDescriptionIgnoreCase() {
+        Item drill = addItem("Дрель", "Аккумуляторная дрель", true);
+        Item saw = addItem("Пила", "Ручная пила для ДРЕЛИ не подходит", true);
+        addItem("Молоток", "Тяжелый", true);
+
+        Assertions.assertEquals(List.of(drill.getId(), saw.getId()), getIds(itemSearchEngine.search("дрел")));
+        Assertions.assertEquals(List.of(drill.getId()), getIds(itemSearchEngine.search("АККУМ")));
+        Assertions.assertTrue(itemSearchEngine.search("перфоратор").isEmpty());
+    }
+
+    @Test
+    public void testSearchShortText() {
+        Item drill = addItem("Дрель", "Ударная", true);
+        addItem("Пила", "Ручная", true);
+
+        Assertions.assertEquals(List.of(drill.getId()), getIds(itemSearchEngine.search("ь")));
+    }
+
+    @Test
+    public void testSearchNotCrossFields() {
+        addItem("Дрель", "ударная", true);
+
+        Assertions.assertTrue(itemSearchEngine.search("дрельуд").isEmpty());
+    }
+
+    @Test
+    public void testSearchWithPage() {
+        Item first = addItem("Дрель 1", "Дрель", true);
+        Item second = addItem("Дрель 2", "Дрель", true);
+        Item third = addItem("Дрель 3", "Дрель", true);
+
+        Assertions.assertEquals(List.of(first.getId(), second.getId()),
+                getIds(itemSearchEngine.search("дрель", 0, 2)));
+        Assertions.assertEquals(List.of(third.getId()),
+                getIds(itemSearchEngine.search("дрель", 2, 2)));
+        Assertions.assertTrue(itemSearchEngine.search("дрель", 4, 2).isEmpty());
+    }
+
+    @Test
+    public void testIndexUpdatedAfterUpdateAndDelete() {
+        Item drill = addItem("Дрель", "Ударная", true);
+        Assertions.assertTrue(itemSearchEngine.search("пила").isEmpty());
+
+        itemService.update(drill.getId(), owner.getId(), null,
+                Item.builder().name("Пила").build());
+        Assertions.assertTrue(itemSearchEngine.search("дрель").isEmpty());
+        Assertions.assertEquals(List.of(drill.getId()), getIds(itemSearchEngine.search("пила")));
+
+        itemService.update(drill.getId(), owner.getId(), null,
+                Item.builder().available(false).build());
+        Assertions.assertTrue(itemSearchEngine.search("пила").isEmpty());
+
+        itemService.update(drill.getId(), owner.getId(), null,
+                Item.builder().available(true).build());
+        Assertions.assertEquals(List.of(drill.getId()), getIds(itemSearchEngine.search("пила")));
+
+        itemService.delete(drill.getId(), owner.getId());
+        Assertions.assertTrue(itemSearchEngine.search("пила").isEmpty());
+    }
+
+    @Test
+    public void testRebuildFromDatabase() {
+        Item drill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .build());
+        Assertions.assertTrue(itemSearchEngine.search("дрель").isEmpty());
+
+        ((InMemoryItemSearchEngine) itemSearchEngine).rebuild();
+
+        Assertions.assertEquals(List.of(drill.getId()), getIds(itemSearchEngine.search("дрель")));
+    }
+
+    // Изменения, закоммиченные во время чтения базы, не теряются при замене индекса
+    @Test
+    public void testRebuildKeepsConcurrentUpdates() {
+        ItemRepository repository = mock(ItemRepository.class);
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(repository, new SimpleMeterRegistry());
+        when(repository.findByAvailableTrue()).thenAnswer(invocation -> {
+            engine.onDeleted(1L);
+            engine.onSaved(Item.builder().id(2L).name("Пила").description("Ручная").available(true).build());
+            return List.of(getTextView(1L, "Дрель"));
+        });
+
+        engine.rebuild();
+
+        Assertions.assertTrue(engine.search("дрель").isEmpty());
+        Assertions.assertEquals(1, engine.getItemCount());
+        Assertions.assertEquals(new TotalCount(1, true), engine.count("пила"));
+    }
+
+    private ItemTextView getTextView(Long id, String name) {
+        return new ItemTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "";
+            }
+        };
+    }
+
+    private Item addItem(String name, String description, Boolean available) {
+        return itemService.create(owner.getId(), null, Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build());
+    }
+
+    private List<Long> getIds(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
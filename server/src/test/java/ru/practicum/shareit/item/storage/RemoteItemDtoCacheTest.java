@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemViewService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.cache.InMemoryRemoteCacheClient;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Внешний кэш с заменой Redis на хранилище в памяти
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "shareit.item-cache.type=remote")
+@AutoConfigureTestDatabase
+public class RemoteItemDtoCacheTest {
+
+    @TestConfiguration
+    static class RemoteCacheClientConfig {
+        @Bean
+        @Primary
+        public InMemoryRemoteCacheClient inMemoryRemoteCacheClient() {
+            return new InMemoryRemoteCacheClient();
+        }
+    }
+
+    @Autowired
+    private ItemDtoCache itemDtoCache;
+
+    @Autowired
+    private InMemoryRemoteCacheClient remoteCacheClient;
+
+    @Autowired
+    private ItemViewService itemViewService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    public void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        remoteCacheClient.clear();
+    }
+
+    @Test
+    public void testRemoteCacheSelected() {
+        Assertions.assertTrue(itemDtoCache instanceof RemoteItemDtoCache);
+    }
+
+    @Test
+    public void testOwnerViewStoredAsJson() {
+        User owner = addUser();
+        Item item = addItem(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(addUser())
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        ItemDto res = itemViewService.getItemDto(item.getId(), owner.getId());
+
+        Assertions.assertTrue(remoteCacheClient.getValues().containsKey("shareit:item:" + item.getId()));
+        ItemDtoCacheEntry entry = itemDtoCache.get(item.getId()).get();
+        Assertions.assertEquals(owner.getId(), entry.getOwnerId());
+        Assertions.assertEquals(res, entry.getOwnerView());
+        Assertions.assertEquals(start, entry.getOwnerViewValidUntil());
+        Assertions.assertNull(entry.getGuestView());
+    }
+
+    @Test
+    public void testEvictAfterItemUpdate() {
+        User owner = addUser();
+        Item item = addItem(owner);
+        itemViewService.getItemDto(item.getId(), owner.getId());
+
+        itemService.update(item.getId(), owner.getId(), null, Item.builder().name("New name").build());
+
+        Assertions.assertFalse(remoteCacheClient.getValues().containsKey("shareit:item:" + item.getId()));
+        Assertions.assertEquals("New name", itemViewService.getItemDto(item.getId(), owner.getId()).getName());
+    }
+
+    // Значение, собранное до удаления записи, не перезаписывает удаление
+    @Test
+    public void testPutAfterEvictRejected() {
+        ItemDtoCacheEntry entry = ItemDtoCacheEntry.builder()
+                .ownerId(1L)
+                .guestView(ItemDto.builder().id(1L).name("Old name").build())
+                .build();
+
+        itemDtoCache.evict(1L);
+        itemDtoCache.put(1L, entry);
+        Assertions.assertNull(itemDtoCache.get(1L).get().getGuestView());
+
+        entry.setVersion(itemDtoCache.get(1L).get().getVersion());
+        itemDtoCache.put(1L, entry);
+        Assertions.assertEquals("Old name", itemDtoCache.get(1L).get().getGuestView().getName());
+    }
+
+    @Test
+    public void testUnreadableEntryIsMiss() {
+        remoteCacheClient.set("shareit:item:1", "not json", 0, null);
+
+        Assertions.assertTrue(itemDtoCache.get(1L).isEmpty());
+    }
+
+    private Item addItem(User user) {
+        return itemRepository.save(Item.builder()
+                .name("Name item")
+                .description("Description item")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
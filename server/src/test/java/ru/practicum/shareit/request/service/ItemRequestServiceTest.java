@@ -10,15 +10,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.TestUtil;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemView;
+import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.request.storage.ItemRequestView;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 import ru.practicum.shareit.util.exception.NotFoundException;
 import ru.practicum.shareit.util.exception.ValidationException;
+import ru.practicum.shareit.util.metrics.SqlStatementCounter;
+import ru.practicum.shareit.util.page.PagedList;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @AutoConfigureTestDatabase
@@ -150,6 +157,27 @@ public class ItemRequestServiceTest {
 
     }
 
+    @Test
+    public void testFindAllByUserIdItemsGroupedByRequest() {
+        ItemRequest first = itemRequestService.create(getDefaultCreateItemRequest(), requester.getId());
+        ItemRequest second = itemRequestService.create(getDefaultCreateItemRequest(), requester.getId());
+        ItemRequest third = itemRequestService.create(getDefaultCreateItemRequest(), requester.getId());
+
+        User owner = addUser();
+        Item firstItem = addItem(owner, first);
+        Item secondItem1 = addItem(owner, second);
+        Item secondItem2 = addItem(owner, second);
+
+        Map<Long, List<Long>> items = itemRequestService.findAllByRequesterId(requester.getId()).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, request -> request.getItems().stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList())));
+
+        Assertions.assertEquals(List.of(firstItem.getId()), items.get(first.getId()));
+        Assertions.assertEquals(List.of(secondItem1.getId(), secondItem2.getId()), items.get(second.getId()));
+        Assertions.assertEquals(List.of(), items.get(third.getId()));
+    }
+
     @Test
     public void testFindAllByRequesterIdFailedNoUser() {
         Assertions.assertThrows(NotFoundException.class,
@@ -197,6 +225,55 @@ public class ItemRequestServiceTest {
                         0, null));
     }
 
+    // Запросы и их вещи читаются проекциями двумя запросами, ответ совпадает с прочитанным сущностями
+    @Test
+    public void testFindAllByOffsetSingleQueriesSameAsEntities() {
+        ItemRequest itemRequest = itemRequestService.create(getDefaultCreateItemRequest(), requester.getId());
+        User owner = addUser();
+        Item item = addItem(owner, itemRequest);
+
+        SqlStatementCounter.start();
+        List<ItemRequestView> views = itemRequestRepository.findViewsByRequesterIdNot(owner.getId());
+        List<ItemView> itemViews = itemRepository.findViewsByRequestIdIn(List.of(itemRequest.getId()));
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        Assertions.assertEquals(2, counter.getCount());
+        Assertions.assertEquals(1, views.size());
+        Assertions.assertEquals(requester.getId(), views.get(0).getRequesterId());
+        Assertions.assertEquals(1, itemViews.size());
+        Assertions.assertEquals(owner.getId(), itemViews.get(0).getOwnerId());
+
+        ItemRequest res = itemRequestService.findAllByOffset(owner.getId(), null, null).get(0);
+        ItemRequest entity = itemRequestRepository.findWithRequesterById(itemRequest.getId()).get();
+        entity.setItems(List.of(itemRepository.findWithOwnerById(item.getId()).get()));
+        Assertions.assertEquals(RequestMapper.toItemRequestDto(entity), RequestMapper.toItemRequestDto(res));
+    }
+
+    /*
+        Тесты на метод: PagedList<ItemRequest> findPageByOffset(Long userId, Integer from, Integer size,
+                                                                boolean withTotal);
+     */
+
+    @Test
+    public void testFindPageByOffsetHasNextAndTotal() {
+        User requester2 = addUser();
+        for (int i = 0; i < 3; i++) {
+            itemRequestService.create(getDefaultCreateItemRequest(), requester.getId());
+        }
+        itemRequestService.create(getDefaultCreateItemRequest(), requester2.getId());
+
+        PagedList<ItemRequest> page1 = itemRequestService.findPageByOffset(requester2.getId(), 1, 1, true);
+        PagedList<ItemRequest> page2 = itemRequestService.findPageByOffset(requester2.getId(), 2, 1, false);
+
+        Assertions.assertEquals(1, page1.getItems().size());
+        Assertions.assertTrue(page1.isHasNext());
+        Assertions.assertEquals(3, page1.getTotal());
+        Assertions.assertTrue(page1.getTotalExact());
+        Assertions.assertEquals(1, page2.getItems().size());
+        Assertions.assertFalse(page2.isHasNext());
+        Assertions.assertNull(page2.getTotal());
+    }
+
     private void testFindAllByOffsetId(int sizeList, Integer from, Integer sizePage) {
         User requester2 = addUser();
         ItemRequest createdItemRequest = itemRequestService
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.user.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureTestDatabase
+public class UserCacheTest {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void afterEach() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindByIdCountsHitsAndMisses() {
+        User user = addUser();
+        double hits = getCount("hit");
+        double misses = getCount("miss");
+
+        Assertions.assertEquals(user, userCache.findById(user.getId()).get());
+        Assertions.assertEquals(user, userCache.findById(user.getId()).get());
+
+        Assertions.assertEquals(misses + 1, getCount("miss"));
+        Assertions.assertEquals(hits + 1, getCount("hit"));
+    }
+
+    @Test
+    public void testFindByIdNotCachedMissingUser() {
+        Assertions.assertTrue(userCache.findById(Long.MAX_VALUE).isEmpty());
+
+        User user = addUser();
+
+        Assertions.assertTrue(userCache.findById(user.getId()).isPresent());
+    }
+
+    @Test
+    public void testFindByIdReturnsCopy() {
+        User user = addUser();
+
+        userCache.findById(user.getId()).get().setName("Changed");
+
+        Assertions.assertEquals(user.getName(), userCache.findById(user.getId()).get().getName());
+    }
+
+    @Test
+    public void testEvictAfterUpdate() {
+        User user = addUser();
+        userCache.findById(user.getId());
+
+        userService.update(user.getId(), User.builder().name("New name").build());
+
+        Assertions.assertEquals("New name", userCache.findById(user.getId()).get().getName());
+    }
+
+    @Test
+    public void testEvictAfterDelete() {
+        User user = addUser();
+        userCache.findById(user.getId());
+
+        userService.delete(user.getId());
+
+        Assertions.assertTrue(userCache.findById(user.getId()).isEmpty());
+    }
+
+    private double getCount(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "users")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build());
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.util.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemView;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.metrics.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureTestDatabase
+@AutoConfigureMetrics
+public class HibernateCacheConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = userService.create(getUser());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testUserCachedAndInvalidatedAfterUpdateAndDelete() {
+        userRepository.findById(owner.getId());
+
+        // Повторное чтение - из кэша второго уровня, без обращения к базе данных
+        Assertions.assertEquals(0, countStatements(() -> userRepository.findById(owner.getId())));
+
+        userService.update(owner.getId(), User.builder().name("Updated user").build());
+        Assertions.assertEquals("Updated user", userRepository.findById(owner.getId()).get().getName());
+
+        userService.delete(owner.getId());
+        Assertions.assertTrue(userRepository.findById(owner.getId()).isEmpty());
+    }
+
+    @Test
+    public void testItemCachedAndInvalidatedAfterUpdateAndDelete() {
+        Item item = itemService.create(owner.getId(), null, getItem("Name item"));
+        itemRepository.findById(item.getId());
+
+        // Вещь и ее владелец - из кэша второго уровня
+        Assertions.assertEquals(0, countStatements(() -> itemRepository.findById(item.getId())));
+
+        itemService.update(item.getId(), owner.getId(), null, Item.builder().name("Updated item").build());
+        Assertions.assertEquals("Updated item", itemRepository.findById(item.getId()).get().getName());
+
+        itemService.delete(item.getId(), owner.getId());
+        Assertions.assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    public void testQueryCacheInvalidatedAfterInsert() {
+        itemService.create(owner.getId(), null, getItem("First item"));
+        itemRepository.findViewsByOwnerId(owner.getId());
+
+        Assertions.assertEquals(0, countStatements(() -> itemRepository.findViewsByOwnerId(owner.getId())));
+
+        // Новая вещь изменяет таблицу items - закэшированный результат запроса больше не используется
+        itemService.create(owner.getId(), null, getItem("Second item"));
+        List<ItemView> items = itemRepository.findViewsByOwnerId(owner.getId());
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals("Second item", items.get(1).getName());
+    }
+
+    @Test
+    public void testRequestQueryCacheInvalidatedAfterInsert() {
+        User requester = userService.create(getUser());
+        itemRequestService.create(ItemRequest.builder().description("First request").build(), requester.getId());
+        itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requester.getId());
+
+        Assertions.assertEquals(0, countStatements(
+                () -> itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requester.getId())));
+
+        itemRequestService.create(ItemRequest.builder().description("Second request").build(), requester.getId());
+        Assertions.assertEquals(2, itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requester.getId()).size());
+    }
+
+    @Test
+    public void testRegionStatisticsRecorded() {
+        userRepository.findById(owner.getId());
+        userRepository.findById(owner.getId());
+
+        double hits = meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", HibernateCacheConfig.USER_REGION)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+        Assertions.assertTrue(hits >= 1);
+
+        double puts = meterRegistry.get("hibernate.second.level.cache.puts")
+                .tag("region", HibernateCacheConfig.USER_REGION)
+                .functionCounter()
+                .count();
+        Assertions.assertTrue(puts >= 1);
+
+        // Статистика собирается, но метрики сессий не выводятся в лог
+        Assertions.assertEquals(false,
+                entityManagerFactory.getProperties().get(AvailableSettings.LOG_SESSION_METRICS));
+    }
+
+    private long countStatements(Supplier<?> supplier) {
+        SqlStatementCounter.start();
+        supplier.get();
+        return SqlStatementCounter.stop().getCount();
+    }
+
+    private Item getItem(String name) {
+        return Item.builder()
+                .name(name)
+                .description("Description item")
+                .available(true)
+                .build();
+    }
+
+    private User getUser() {
+        return User.builder()
+                .name("Name user")
+                .email("user" + TestUtil.getRandomPartForEmail() + "@yandex.ru")
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Замена Redis в тестах: значения и версии хранятся в памяти, время жизни не учитывается
+public class InMemoryRemoteCacheClient implements RemoteCacheClient {
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized VersionedValue get(String key) {
+        return new VersionedValue(values.get(key), versions.getOrDefault(key, 0L));
+    }
+
+    @Override
+    public synchronized void set(String key, String value, long version, Duration ttl) {
+        if (versions.getOrDefault(key, 0L) == version) {
+            values.put(key, value);
+        }
+    }
+
+    @Override
+    public synchronized void delete(String key, Duration versionTtl) {
+        values.remove(key);
+        versions.merge(key, 1L, Long::sum);
+    }
+
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    public void clear() {
+        values.clear();
+        versions.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.util.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+// Недоступный Redis: ошибки хранилища не доходят до вызывающего кода
+public class RedisRemoteCacheClientTest {
+    private RedisRemoteCacheClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new RedisRemoteCacheClient("redis://localhost:1", Duration.ofMillis(100), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+    }
+
+    @Test
+    public void testUnavailableRedisIsMiss() {
+        // Вторая попытка приходится на паузу между подключениями и не обращается к Redis
+        for (int i = 0; i < 2; i++) {
+            VersionedValue res = client.get("shareit:item:1");
+
+            Assertions.assertNull(res.getValue());
+            Assertions.assertEquals(VersionedValue.NO_VERSION, res.getVersion());
+        }
+    }
+
+    @Test
+    public void testUnavailableRedisWriteIgnored() {
+        Assertions.assertDoesNotThrow(() -> client.delete("shareit:item:1", Duration.ofMinutes(5)));
+        Assertions.assertDoesNotThrow(() -> client.set("shareit:item:1", "{}", 0, Duration.ofMinutes(5)));
+        Assertions.assertNull(client.get("shareit:item:1").getValue());
+    }
+}
@@ -0,0 +1,251 @@
+package ru.practicum.shareit.util.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemDtoCache;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    Точное количество SQL запросов на каждый эндпоинт чтения при холодных кэшах.
+    Связи сущностей ленивые, сессия на время ответа не открыта: связь, не загруженная планом
+    загрузки метода репозитория, завершит запрос ошибкой, лишняя загрузка изменит количество запросов
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class EndpointSqlStatementsTest {
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ItemDtoCache itemDtoCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+    private User requester;
+    private ItemRequest request;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    public void beforeEach() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = addUser("Owner");
+        booker = addUser("Booker");
+        requester = addUser("Requester");
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна дрель")
+                .requester(requester)
+                .created(now.minusDays(3))
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+        addBooking(booker, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+        booking = addBooking(booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        commentRepository.save(Comment.builder()
+                .text("Хорошая дрель")
+                .item(item)
+                .author(booker)
+                .created(now)
+                .build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testGetItem() throws Exception {
+        // Пользователь, вещь с владельцем, последнее и следующее бронирование, комментарии с авторами
+        perform(4, "/items/{id}", get("/items/{id}", item.getId()).header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(jsonPath("$.owner.name").value(owner.getName()))
+                .andExpect(jsonPath("$.requestId").value(request.getId()))
+                .andExpect(jsonPath("$.lastBooking.bookerId").value(booker.getId()))
+                .andExpect(jsonPath("$.comments[0].authorName").value(booker.getName()));
+    }
+
+    @Test
+    public void testFindAllItemsByOwner() throws Exception {
+        perform(4, "/items", get("/items").header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(jsonPath("$[0].owner.name").value(owner.getName()))
+                .andExpect(jsonPath("$[0].comments[0].authorName").value(booker.getName()));
+    }
+
+    @Test
+    public void testSearchItems() throws Exception {
+        perform(4, "/items/search", get("/items/search").header(X_SHARER_USER_ID, booker.getId())
+                .param("text", "дрель"))
+                .andExpect(jsonPath("$[0].owner.name").value(owner.getName()))
+                .andExpect(jsonPath("$[0].comments[0].authorName").value(booker.getName()));
+    }
+
+    @Test
+    public void testGetBooking() throws Exception {
+        // Пользователь, бронирование с вещью, владельцем, запросом вещи и автором бронирования
+        perform(2, "/bookings/{id}", get("/bookings/{id}", booking.getId()).header(X_SHARER_USER_ID, booker.getId()))
+                .andExpect(jsonPath("$.item.owner.name").value(owner.getName()))
+                .andExpect(jsonPath("$.item.request.requester.name").value(requester.getName()))
+                .andExpect(jsonPath("$.booker.name").value(booker.getName()));
+    }
+
+    @Test
+    public void testApproveBooking() throws Exception {
+        // Пользователь, бронирование, блокировка вещи, проверка пересечения и обновление статуса
+        perform(5, "/bookings/{id}", patch("/bookings/{id}", booking.getId())
+                .header(X_SHARER_USER_ID, owner.getId())
+                .param("approved", "true"))
+                .andExpect(jsonPath("$.status").value(BookingStatus.APPROVED.name()))
+                .andExpect(jsonPath("$.item.owner.name").value(owner.getName()))
+                .andExpect(jsonPath("$.booker.name").value(booker.getName()));
+    }
+
+    @Test
+    public void testFindAllBookingsByBooker() throws Exception {
+        perform(2, "/bookings", get("/bookings").header(X_SHARER_USER_ID, booker.getId()))
+                .andExpect(jsonPath("$[0].item.owner.name").value(owner.getName()))
+                .andExpect(jsonPath("$[0].booker.name").value(booker.getName()));
+    }
+
+    @Test
+    public void testFindAllBookingsByOwner() throws Exception {
+        perform(2, "/bookings/owner", get("/bookings/owner").header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(jsonPath("$[0].item.request.requester.name").value(requester.getName()))
+                .andExpect(jsonPath("$[0].booker.name").value(booker.getName()));
+    }
+
+    @Test
+    public void testGetRequest() throws Exception {
+        // Пользователь, запрос с автором, вещи запроса с владельцами
+        perform(3, "/requests/{id}", get("/requests/{id}", request.getId()).header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(jsonPath("$.requestor.name").value(requester.getName()))
+                .andExpect(jsonPath("$.items[0].owner.name").value(owner.getName()));
+    }
+
+    @Test
+    public void testFindAllRequestsByRequester() throws Exception {
+        perform(3, "/requests", get("/requests").header(X_SHARER_USER_ID, requester.getId()))
+                .andExpect(jsonPath("$[0].requestor.name").value(requester.getName()))
+                .andExpect(jsonPath("$[0].items[0].owner.name").value(owner.getName()));
+    }
+
+    @Test
+    public void testFindAllRequests() throws Exception {
+        perform(3, "/requests/all", get("/requests/all").header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(jsonPath("$[0].requestor.name").value(requester.getName()))
+                .andExpect(jsonPath("$[0].items[0].owner.name").value(owner.getName()));
+    }
+
+    /*
+        Запрос при пустых кэшах: второго уровня Hibernate, пользователей и просмотра вещи.
+        Количество SQL запросов - прирост суммы shareit.http.sql.statements по шаблону пути
+     */
+    private ResultActions perform(long expectedStatements, String uri, RequestBuilder request) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        userCache.evict(owner.getId());
+        userCache.evict(booker.getId());
+        userCache.evict(requester.getId());
+        itemDtoCache.evict(item.getId());
+        double before = getStatementsAmount(uri);
+
+        ResultActions result = mockMvc.perform(request)
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(expectedStatements, getStatementsAmount(uri) - before);
+        return result;
+    }
+
+    private double getStatementsAmount(String uri) {
+        return meterRegistry.find("shareit.http.sql.statements")
+                .tags("uri", uri)
+                .summaries().stream()
+                .mapToDouble(DistributionSummary::totalAmount)
+                .sum();
+    }
+
+    private Booking addBooking(User user, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    private User addUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email("endpoint" + TestUtil.getRandomPartForEmail() + "@mail.ru")
+                .build());
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.util.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "management.endpoints.web.exposure.include=health,prometheus")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void afterEach() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testSqlStatementsAndServiceCallsRecorded() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("Metrics")
+                .email("metrics" + TestUtil.getRandomPartForEmail() + "@mail.ru")
+                .build());
+        long requests = getStatementsCount();
+
+        mockMvc.perform(get("/users/{id}", user.getId()))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(requests + 1, getStatementsCount());
+        Assertions.assertTrue(getStatements().totalAmount() >= 1);
+
+        Timer serviceCalls = meterRegistry.get("shareit.service.calls")
+                .tag("class", "UserServiceImpl")
+                .tag("exception", "none")
+                .timer();
+        Assertions.assertTrue(serviceCalls.count() >= 1);
+    }
+
+    @Test
+    public void testServiceCallsTaggedWithException() throws Exception {
+        mockMvc.perform(get("/users/{id}", 100_000))
+                .andExpect(status().isNotFound());
+
+        Assertions.assertNotNull(meterRegistry.find("shareit.service.calls")
+                .tag("class", "UserServiceImpl")
+                .tag("exception", "NotFoundException")
+                .timer());
+    }
+
+    @Test
+    public void testPrometheusEndpoint() throws Exception {
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_http_sql_statements")))
+                .andExpect(content().string(containsString("shareit_service_calls_seconds")));
+    }
+
+    private long getStatementsCount() {
+        DistributionSummary statements = meterRegistry.find("shareit.http.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/users/{id}")
+                .summary();
+        return statements == null ? 0 : statements.count();
+    }
+
+    private DistributionSummary getStatements() {
+        return meterRegistry.get("shareit.http.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/users/{id}")
+                .summary();
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.util.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestUtil;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    Количество SQL запросов на HTTP запрос не должно зависеть от количества данных.
+    Данных больше, чем порог fail-threshold, поэтому любой N+1 завершит запрос исключением
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "shareit.sql-statements.fail-threshold=" + SqlStatementThresholdTest.FAIL_THRESHOLD)
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+public class SqlStatementThresholdTest {
+    static final int FAIL_THRESHOLD = 10;
+    private static final int ITEMS_COUNT = 2 * FAIL_THRESHOLD;
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = addUser();
+        booker = addUser();
+        LocalDateTime now = LocalDateTime.now();
+
+        // У каждой вещи свой запрос, свой автор запроса, бронирования и комментарий
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            User requester = addUser();
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Запрос " + i)
+                    .requester(requester)
+                    .created(now.minusDays(1))
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Аккумуляторная дрель " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            addBooking(item, requester, now.minusDays(2), now.minusDays(1));
+            addBooking(item, booker, now.plusDays(1), now.plusDays(2));
+            commentRepository.save(Comment.builder()
+                    .text("Комментарий " + i)
+                    .item(item)
+                    .author(requester)
+                    .created(now)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindAllItemsByOwner() throws Exception {
+        mockMvc.perform(get("/items").header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testSearchItems() throws Exception {
+        mockMvc.perform(get("/items/search").header(X_SHARER_USER_ID, owner.getId())
+                        .param("text", "дрель"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testFindAllRequests() throws Exception {
+        mockMvc.perform(get("/requests/all").header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testFindAllBookingsByOwner() throws Exception {
+        mockMvc.perform(get("/bookings/owner").header(X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testFindAllBookingsByBooker() throws Exception {
+        mockMvc.perform(get("/bookings").header(X_SHARER_USER_ID, booker.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testThresholdExceeded() {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(new SimpleMeterRegistry(),
+                FAIL_THRESHOLD, FAIL_THRESHOLD, Set.of());
+
+        Assertions.assertThrows(SqlStatementThresholdException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                        (request, response) -> executeStatements(FAIL_THRESHOLD + 1)));
+    }
+
+    @Test
+    public void testThresholdWarnOnly() throws Exception {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(new SimpleMeterRegistry(),
+                FAIL_THRESHOLD, 0, Set.of());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                (request, response) -> executeStatements(FAIL_THRESHOLD + 1));
+    }
+
+    @Test
+    public void testFingerprint() {
+        Assertions.assertEquals("select * from items where id in (...) and name = ? and price > ?",
+                SqlStatementCounter.fingerprint("select *  from items\n where id in (1, 2, 3) " +
+                        "and name = 'O''Brien' and price > 10.5"));
+    }
+
+    private void executeStatements(int count) {
+        for (int i = 0; i < count; i++) {
+            SqlStatementCounter.increment("select * from items where id = " + i);
+        }
+    }
+
+    private void addBooking(Item item, User user, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    private User addUser() {
+        return userRepository.save(User.builder()
+                .name("User")
+                .email("threshold" + TestUtil.getRandomPartForEmail() + "@mail.ru")
+                .build());
+    }
+}
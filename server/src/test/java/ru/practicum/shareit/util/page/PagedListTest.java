@@ -0,0 +1,67 @@
+package ru.practicum.shareit.util.page;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PagedListTest {
+
+    @Test
+    public void testOfExtraElementHasNext() {
+        PagedList<Integer> page = PagedList.of(List.of(1, 2, 3), 2);
+
+        Assertions.assertEquals(List.of(1, 2), page.getItems());
+        Assertions.assertTrue(page.isHasNext());
+    }
+
+    @Test
+    public void testOfLastPage() {
+        PagedList<Integer> page = PagedList.of(List.of(1, 2), 2);
+
+        Assertions.assertEquals(List.of(1, 2), page.getItems());
+        Assertions.assertFalse(page.isHasNext());
+    }
+
+    @Test
+    public void testOfWithoutSize() {
+        Assertions.assertFalse(PagedList.of(List.of(1, 2, 3), null).isHasNext());
+        Assertions.assertNull(PagedList.getFetchSize(null));
+        Assertions.assertEquals(6, PagedList.getFetchSize(5));
+    }
+
+    // На непустой последней странице количество известно без запроса
+    @Test
+    public void testWithTotalLastPageWithoutCount() {
+        PagedList<Integer> page = PagedList.of(List.of(1, 2), 5).withTotal(10, () -> {
+            throw new AssertionError("Запрос количества на последней странице");
+        });
+
+        Assertions.assertEquals(12, page.getTotal());
+        Assertions.assertTrue(page.getTotalExact());
+    }
+
+    @Test
+    public void testWithTotalCounted() {
+        Assertions.assertEquals(40, PagedList.of(List.of(1, 2, 3), 2)
+                .withTotal(0, () -> new TotalCount(40, true)).getTotal());
+        // Позиция за концом списка
+        Assertions.assertEquals(7, PagedList.of(List.<Integer>of(), 2)
+                .withTotal(10, () -> new TotalCount(7, true)).getTotal());
+        // Страница по курсору: позиция неизвестна
+        Assertions.assertEquals(9, PagedList.of(List.of(1), 2)
+                .withTotal(null, () -> new TotalCount(9, false)).getTotal());
+    }
+
+    @Test
+    public void testMap() {
+        PagedList<String> page = PagedList.of(List.of(1, 2, 3), 2)
+                .withTotal(0, () -> new TotalCount(100000, false))
+                .map(String::valueOf);
+
+        Assertions.assertEquals(List.of("1", "2"), page.getItems());
+        Assertions.assertTrue(page.isHasNext());
+        Assertions.assertEquals(100000, page.getTotal());
+        Assertions.assertFalse(page.getTotalExact());
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.util.page;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class TotalCounterTest {
+    private static final String ROWS_SQL = "select 1 from items where owner_id = :ownerId";
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    }
+
+    // Оценка планировщика больше порога: count по списку не выполняется
+    @Test
+    public void testCountLargeListEstimated() {
+        mockPlanRows(250000);
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        TotalCount res = totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> {
+            throw new AssertionError("Точный count для большого списка");
+        });
+
+        Assertions.assertEquals(new TotalCount(250000, false), res);
+    }
+
+    @Test
+    public void testCountSmallListExact() {
+        mockPlanRows(120);
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        Assertions.assertEquals(new TotalCount(117, true),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> 117));
+    }
+
+    @Test
+    public void testCountEstimateDisabled() {
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), false, 10000);
+
+        Assertions.assertEquals(new TotalCount(3, true),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> 3));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void testCountUnknownPlanExact() {
+        when(jdbcTemplate.queryForObject(any(String.class), anyMap(), eq(String.class)))
+                .thenReturn("[]");
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        Assertions.assertEquals(new TotalCount(5, true),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> 5));
+    }
+
+    @Test
+    public void testCountMalformedPlanExact() {
+        when(jdbcTemplate.queryForObject(any(String.class), anyMap(), eq(String.class)))
+                .thenReturn("[{\"Plan\": {\"Plan Rows\": \"many\"}}]");
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        Assertions.assertEquals(new TotalCount(7, true),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> 7));
+    }
+
+    /*
+        Планы в формате EXPLAIN (FORMAT JSON) PostgreSQL для запросов строк списков:
+        оценка берется из верхнего узла плана, а не из вложенных
+     */
+    @Test
+    public void testCountNestedPlanEstimated() throws IOException {
+        mockPlan("search-items.json");
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        Assertions.assertEquals(new TotalCount(24875, false),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> {
+                    throw new AssertionError("Точный count для большого списка");
+                }));
+    }
+
+    @Test
+    public void testCountFilteredScanPlanEstimated() throws IOException {
+        mockPlan("other-requests.json");
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        Assertions.assertEquals(new TotalCount(199980, false),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> 0));
+    }
+
+    // План без стоимостей (COSTS OFF) не содержит Plan Rows: выполняется точный count
+    @Test
+    public void testCountPlanWithoutRowsExact() throws IOException {
+        mockPlan("owner-items-costs-off.json");
+        TotalCounter totalCounter = new TotalCounter(jdbcTemplate, new ObjectMapper(), true, 10000);
+
+        Assertions.assertEquals(new TotalCount(11, true),
+                totalCounter.count(ROWS_SQL, Map.of("ownerId", 1L), () -> 11));
+    }
+
+    private void mockPlan(String file) throws IOException {
+        try (InputStream plan = getClass().getResourceAsStream("/plans/" + file)) {
+            when(jdbcTemplate.queryForObject(eq("EXPLAIN (FORMAT JSON) " + ROWS_SQL), anyMap(), eq(String.class)))
+                    .thenReturn(new String(plan.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void mockPlanRows(long rows) {
+        when(jdbcTemplate.queryForObject(eq("EXPLAIN (FORMAT JSON) " + ROWS_SQL), anyMap(), eq(String.class)))
+                .thenReturn("[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Relation Name\": \"items\", "
+                        + "\"Plan Rows\": " + rows + ", \"Plan Width\": 4}}]");
+    }
+}